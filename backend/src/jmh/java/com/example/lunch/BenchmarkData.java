@@ -0,0 +1,113 @@
+package com.example.lunch;
+
+import com.example.lunch.model.Order;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rows and orders shaped like a real lunch group: a dozen menu items, repeat customers,
+ * mixed rice levels and the odd note. Seeded, so every fork sees the same data.
+ */
+public final class BenchmarkData {
+
+    public static final String GROUP_ID = "bench-group";
+
+    private static final String[] ITEMS = { "五香雞腿", "青蔥海鹽雞胸", "招牌排骨", "滷肉飯", "蔥爆牛肉", "宮保雞丁",
+            "三杯雞", "紅燒魚排", "麻婆豆腐", "咖哩豬排", "蒜泥白肉", "糖醋里肌" };
+    private static final int[] PRICES = { 115, 135, 110, 60, 140, 120, 125, 130, 95, 120, 105, 115 };
+    private static final String[] RICE = { "FULL", "FULL", "FULL", "HALF", "LESS" };
+    private static final String[] NOTES = { "", "", "", "", "不要辣", "加蛋", "去蔥" };
+    private static final DateTimeFormatter SHEET_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private BenchmarkData() {
+    }
+
+    public static List<Order> orders(int count) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2026, 10, 14, 10, 0);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int item = random.nextInt(ITEMS.length);
+            int quantity = random.nextInt(10) == 0 ? 2 : 1;
+            orders.add(Order.builder()
+                    .id("order-" + i)
+                    .groupId(GROUP_ID)
+                    .userName("user" + random.nextInt(Math.max(1, count * 3 / 4)))
+                    .itemName(ITEMS[item])
+                    .basePrice(PRICES[item])
+                    .riceLevel(RICE[random.nextInt(RICE.length)])
+                    .quantity(quantity)
+                    .totalPrice(PRICES[item] * quantity)
+                    .note(NOTES[random.nextInt(NOTES.length)])
+                    .createdAt(start.plusSeconds(i * 7L).format(SHEET_TIME))
+                    .paid(random.nextInt(4) == 0)
+                    .build());
+        }
+        return orders;
+    }
+
+    /**
+     * Orders!A2:K of one group: the order rows followed by the TOTAL row.
+     */
+    public static List<List<Object>> orderRows(int count) {
+        List<List<Object>> rows = new ArrayList<>();
+        int quantity = 0;
+        int sum = 0;
+        for (Order order : orders(count)) {
+            rows.add(orderRow(order));
+            quantity += order.getQuantity();
+            sum += order.getTotalPrice();
+        }
+        rows.add(List.of("TOTAL", "", "---", "總計", "", "", quantity + " 份", String.valueOf(sum), "", "", ""));
+        return rows;
+    }
+
+    public static List<Object> orderRow(Order order) {
+        return List.of(order.getId(), order.getGroupId(), order.getUserName(), order.getItemName(),
+                String.valueOf(order.getBasePrice()), order.getRiceLevel(), String.valueOf(order.getQuantity()),
+                String.valueOf(order.getTotalPrice()), order.getNote(), order.getCreatedAt(),
+                order.getPaid() ? "TRUE" : "FALSE");
+    }
+
+    /**
+     * Groups!A2:I, one group per weekday over the last months; the benchmark group is last.
+     */
+    public static List<List<Object>> groupRows(int count) {
+        List<List<Object>> rows = new ArrayList<>();
+        LocalDateTime created = LocalDateTime.of(2026, 10, 14, 9, 0).minusDays(count);
+        for (int i = 0; i < count; i++) {
+            String id = i == count - 1 ? GROUP_ID : "group-" + i;
+            LocalDateTime at = created.plusDays(i);
+            rows.add(List.of(id, "午餐 " + i, at.withHour(11).toString(), at.format(SHEET_TIME),
+                    ITEMS[i % ITEMS.length] + "便當", "", i % 5 == 0 ? "週五加菜" : "", "0912345678", "taichung"));
+        }
+        return rows;
+    }
+
+    /**
+     * History rows with CreatedAt in the formats found in real sheets: the app's own
+     * "yyyy-MM-dd HH:mm:ss", ISO local and ISO zoned timestamps, and plain dates.
+     */
+    public static List<List<Object>> historyRows(int count) {
+        Random random = new Random(7);
+        LocalDateTime start = LocalDateTime.of(2026, 7, 1, 11, 0);
+        List<List<Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime at = start.plusMinutes(i * 2L);
+            String createdAt = switch (random.nextInt(10)) {
+                case 0 -> at.toString();
+                case 1 -> at.atZone(java.time.ZoneId.of("Asia/Taipei")).toOffsetDateTime().toString();
+                case 2 -> at.toLocalDate().toString();
+                default -> at.format(SHEET_TIME);
+            };
+            int item = random.nextInt(ITEMS.length);
+            rows.add(List.of("order-" + i, "group-" + (i / 40), "user" + random.nextInt(150), ITEMS[item],
+                    String.valueOf(PRICES[item]), "FULL", "1", String.valueOf(PRICES[item]), "", createdAt, "TRUE"));
+        }
+        return rows;
+    }
+}
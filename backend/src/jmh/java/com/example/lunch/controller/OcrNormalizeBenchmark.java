@@ -0,0 +1,51 @@
+package com.example.lunch.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cleaning up menu item names returned by the OCR model, for a typical 40-item menu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OcrNormalizeBenchmark {
+
+    private static final List<String> SAMPLES = List.of("五香雞腿 Five Spice Chicken Leg", "  招牌排骨飯 - ",
+            "Beef Noodle Soup 牛肉麵", "滷肉飯", "青蔥海鹽雞胸 Scallion Salt Chicken /", "Iced Black Tea",
+            "麻婆豆腐 Mapo Tofu | ", "三杯雞 Three Cup Chicken");
+
+    private OcrController controller;
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        controller = new OcrController();
+        names = new java.util.ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            names.add(SAMPLES.get(i % SAMPLES.size()));
+        }
+    }
+
+    @Benchmark
+    public void normalizeMenuName(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(controller.normalizeMenuName(name));
+        }
+    }
+}
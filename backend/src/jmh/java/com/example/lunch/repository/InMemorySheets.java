@@ -0,0 +1,76 @@
+package com.example.lunch.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GoogleSheetsRepository that answers reads from fixed rows and drops writes, so benchmarks
+ * measure the mapping, sorting and totals around the Sheets calls instead of the network.
+ * Since writes are dropped, every invocation sees the same sheet.
+ */
+class InMemorySheets extends GoogleSheetsRepository {
+
+    private final Map<String, List<List<Object>>> ranges = new HashMap<>();
+
+    void put(String range, List<List<Object>> rows) {
+        ranges.put(range, rows);
+    }
+
+    @Override
+    public List<List<Object>> readData(String range) {
+        return new ArrayList<>(ranges.getOrDefault(range, List.of()));
+    }
+
+    @Override
+    public List<List<List<Object>>> readRanges(List<String> requested) {
+        List<List<List<Object>>> result = new ArrayList<>();
+        for (String range : requested) {
+            result.add(readData(range));
+        }
+        return result;
+    }
+
+    @Override
+    public List<List<Object>> readDataForWrite(String range) {
+        return readData(range);
+    }
+
+    @Override
+    public List<List<List<Object>>> readRangesForWrite(List<String> requested) {
+        return readRanges(requested);
+    }
+
+    @Override
+    public int appendRows(String range, List<List<Object>> values) {
+        return -1;
+    }
+
+    @Override
+    public void updateData(String range, List<List<Object>> values) {
+    }
+
+    @Override
+    public void batchUpdateData(Map<String, List<List<Object>>> rangeValues) {
+    }
+
+    @Override
+    public void clearData(String range) {
+    }
+
+    @Override
+    public Set<String> listSheets() {
+        return Set.of("Groups", "Menus", "Orders", "Restaurants");
+    }
+
+    @Override
+    public void addSheet(String title, List<Object> headerRow) {
+    }
+
+    @Override
+    public void deleteSheets(Collection<String> titles) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.BenchmarkData;
+import com.example.lunch.model.DateTimes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date parsing and the cutoff filter of data retention over a large history tab.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RetentionBenchmark {
+
+    @Param({ "100000" })
+    public int historyRows;
+
+    private SheetsLunchStorage storage;
+    private List<List<Object>> rows;
+    private ZonedDateTime cutoff;
+
+    @Setup
+    public void setUp() {
+        storage = new SheetsLunchStorage(new InMemorySheets());
+        rows = BenchmarkData.historyRows(historyRows);
+        cutoff = ZonedDateTime.of(2026, 9, 1, 0, 0, 0, 0, ZoneId.of("Asia/Taipei"));
+    }
+
+    @Benchmark
+    public List<List<Object>> keepRowsAfter() {
+        return storage.keepRowsAfter(rows, 9, cutoff);
+    }
+
+    @Benchmark
+    public void parseDate(Blackhole blackhole) {
+        for (List<Object> row : rows) {
+            blackhole.consume(DateTimes.parse(row.get(9).toString()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.BenchmarkData;
+import com.example.lunch.model.DiningGroup;
+import com.example.lunch.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheets rows → models for the group list and a group's orders, and the read / sort / TOTAL
+ * rebuild of adding an order (Sheets calls answered from memory).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SheetsStorageBenchmark {
+
+    @Param({ "200", "500" })
+    public int orders;
+
+    @Param({ "300" })
+    public int groups;
+
+    private SheetsLunchStorage storage;
+    private Order newOrder;
+
+    @Setup
+    public void setUp() {
+        InMemorySheets sheets = new InMemorySheets();
+        sheets.put("Groups!A2:I", BenchmarkData.groupRows(groups));
+        sheets.put("Orders!A2:K", BenchmarkData.orderRows(orders));
+        storage = new SheetsLunchStorage(sheets);
+        newOrder = BenchmarkData.orders(orders + 1).get(orders);
+    }
+
+    @Benchmark
+    public List<DiningGroup> findAllGroups() throws IOException {
+        return storage.findAllGroups();
+    }
+
+    @Benchmark
+    public List<Order> findOrdersByGroup() throws IOException {
+        return storage.findOrdersByGroup(BenchmarkData.GROUP_ID);
+    }
+
+    // The write is dropped, so every call adds to the same sheet
+    @Benchmark
+    public List<Boolean> addOrder() throws IOException {
+        return storage.applyOrderMutations(List.of(OrderMutation.add(newOrder)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.lunch.service;
+
+import com.example.lunch.BenchmarkData;
+import com.example.lunch.model.Order;
+import com.example.lunch.model.OrderSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The LINE order summary of a closed group (no message is sent): tallying a group's orders
+ * once on load, keeping the tally current on a write, and formatting the message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineSummaryBenchmark {
+
+    @Param({ "200", "500" })
+    public int orders;
+
+    private LineNotificationService service;
+    private List<Order> orderList;
+    private OrderTally tally;
+    private OrderSummary summary;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        service = new LineNotificationService("benchmark-token", "benchmark-group");
+        orderList = BenchmarkData.orders(orders);
+        tally = OrderTally.of(BenchmarkData.GROUP_ID, orderList);
+        summary = tally.summary();
+    }
+
+    @Benchmark
+    public OrderSummary loadTally() {
+        return OrderTally.of(BenchmarkData.GROUP_ID, orderList).summary();
+    }
+
+    // One order re-placed (same id, so the tally size stays put) and the summary read again
+    @Benchmark
+    public OrderSummary updateTally() {
+        tally.add(orderList.get(next++ % orderList.size()));
+        return tally.summary();
+    }
+
+    @Benchmark
+    public String formatOrders() {
+        return service.formatOrders(summary);
+    }
+}
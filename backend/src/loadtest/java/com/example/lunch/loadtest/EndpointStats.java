@@ -0,0 +1,68 @@
+package com.example.lunch.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes of one endpoint. Every call is kept, a lunch rush is a few tens of
+ * thousands of requests at most.
+ */
+class EndpointStats {
+
+    private final String name;
+    private final List<Long> latenciesMicros = new ArrayList<>();
+    // Errors, and 304 Not Modified answers to revalidations
+    private final Map<String, Integer> byStatus = new TreeMap<>();
+    private int failed;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long nanos, int status) {
+        latenciesMicros.add(nanos / 1000);
+        if (status == 304) {
+            byStatus.merge("304", 1, Integer::sum);
+        } else if (status < 200 || status >= 300) {
+            failed++;
+            byStatus.merge(status == 0 ? "IO" : String.valueOf(status), 1, Integer::sum);
+        }
+    }
+
+    synchronized int count() {
+        return latenciesMicros.size();
+    }
+
+    synchronized int failed() {
+        return failed;
+    }
+
+    synchronized String report() {
+        List<Long> sorted = new ArrayList<>(latenciesMicros);
+        Collections.sort(sorted);
+        double errorRate = sorted.isEmpty() ? 0 : 100.0 * failed / sorted.size();
+        return String.format("%-14s %7d %7d %6.2f%% %9s %9s %9s %9s  %s", name, sorted.size(), failed, errorRate,
+                millis(percentile(sorted, 50)), millis(percentile(sorted, 90)), millis(percentile(sorted, 99)),
+                millis(sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1)), byStatus.isEmpty() ? "" : byStatus);
+    }
+
+    static String header() {
+        return String.format("%-14s %7s %7s %7s %9s %9s %9s %9s  %s", "endpoint", "count", "errors", "rate",
+                "p50 ms", "p90 ms", "p99 ms", "max ms", "by status");
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
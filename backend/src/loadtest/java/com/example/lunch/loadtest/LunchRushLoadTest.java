@@ -0,0 +1,520 @@
+package com.example.lunch.loadtest;
+
+import com.example.lunch.LunchSystemApplication;
+import com.example.lunch.repository.GoogleSheetsRepository;
+import com.example.lunch.repository.SheetsEmulator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * Lunch rush against a running app: one group is opened, users keep the order page open
+ * (polling the group), place orders (some for colleagues too, as one batch), change their minds
+ * (delete and re-place) until the deadline, then the settlement page marks every order paid. Reports latency percentiles and
+ * error rates per endpoint and checks that no order was lost or duplicated, both through the
+ * API and, when the app runs in-process on the Sheets emulator, in the Orders tab itself.
+ * <p>
+ * Options: --users=100 --duration=120 (seconds of ordering) --think-ms=3000 --admins=2
+ * --max-error-rate=1.0 (percent) --target=http://host:port (skip the in-process app)
+ * --group=id (use an open group instead of creating one). Any other --key=value is passed
+ * to the in-process app, e.g. --sheets.emulator.latency-ms=400.
+ */
+public class LunchRushLoadTest {
+
+    private static final ZoneId TAIPEI = ZoneId.of("Asia/Taipei");
+    private static final String[] ITEMS = { "五香雞腿", "青蔥海鹽雞胸", "招牌排骨", "滷肉飯", "蔥爆牛肉", "宮保雞丁",
+            "三杯雞", "紅燒魚排", "麻婆豆腐", "咖哩豬排", "蒜泥白肉", "糖醋里肌" };
+    private static final int[] PRICES = { 115, 135, 110, 60, 140, 120, 125, 130, 95, 120, 105, 115 };
+    private static final String[] RICE = { "FULL", "FULL", "FULL", "HALF", "LESS" };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final OrderLedger ledger = new OrderLedger();
+
+    LunchRushLoadTest(String baseUrl, int users) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Math.max(4, users / 4)))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> appArgs = new LinkedHashMap<>();
+        appArgs.put("server.port", "0");
+        appArgs.put("sheets.emulator.enabled", "true");
+        appArgs.put("sheets.emulator.latency-ms", "150");
+        appArgs.put("sheets.emulator.latency-jitter-ms", "100");
+        appArgs.put("logging.level.com.example.lunch", "WARN");
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            String value = kv.length > 1 ? kv[1] : "true";
+            switch (kv[0]) {
+                case "users", "duration", "think-ms", "admins", "max-error-rate", "target", "group" ->
+                    options.put(kv[0], value);
+                default -> appArgs.put(kv[0], value);
+            }
+        }
+        int users = Integer.parseInt(options.getOrDefault("users", "100"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "120"));
+        long thinkMs = Long.parseLong(options.getOrDefault("think-ms", "3000"));
+        int admins = Integer.parseInt(options.getOrDefault("admins", "2"));
+        double maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "1.0"));
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("target");
+        if (baseUrl == null) {
+            List<String> springArgs = new ArrayList<>();
+            appArgs.forEach((key, value) -> springArgs.add("--" + key + "=" + value));
+            context = SpringApplication.run(LunchSystemApplication.class, springArgs.toArray(String[]::new));
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        boolean passed;
+        try {
+            LunchRushLoadTest test = new LunchRushLoadTest(baseUrl, users);
+            String groupId = options.containsKey("group") ? options.get("group")
+                    : test.createGroup(durationSeconds);
+            System.out.printf("%nLunch rush: %d users, %d s, think %d ms, group %s on %s%n%n", users,
+                    durationSeconds, thinkMs, groupId, baseUrl);
+
+            // The organiser's totals view is open from the start, so the rush updates a loaded tally
+            test.getSummary(groupId);
+            long started = System.nanoTime();
+            test.rush(groupId, users, durationSeconds * 1000L, thinkMs);
+            long ordered = System.nanoTime();
+            test.settle(groupId, admins);
+            System.out.printf("Ordering %.1f s, settlement %.1f s%n%n", (ordered - started) / 1e9,
+                    (System.nanoTime() - ordered) / 1e9);
+
+            List<String> problems = test.verify(groupId);
+            if (context != null) {
+                problems.addAll(test.verifySheet(context, groupId));
+            }
+            passed = test.report(problems, maxErrorRate);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    String createGroup(int durationSeconds) throws IOException {
+        // Deadline past the rush so the LINE scheduler stays out of the way
+        String deadline = LocalDateTime.now(TAIPEI).plusSeconds(durationSeconds).plusMinutes(30)
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
+        List<Map<String, Object>> menu = new ArrayList<>();
+        for (int i = 0; i < ITEMS.length; i++) {
+            menu.add(Map.of("name", ITEMS[i], "price", PRICES[i]));
+        }
+        Map<String, Object> payload = Map.of("name", "壓力測試午餐", "deadline", deadline,
+                "restaurantName", "壓測便當", "menu", menu);
+        HttpResponse<String> response = send("create group", "POST", "/api/groups", payload);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not open a group (" + response.statusCode() + "): "
+                    + response.body() + " — close the open group or pass --group=<id>");
+        }
+        return String.valueOf(mapper.readValue(response.body(), Map.class).get("id"));
+    }
+
+    void rush(String groupId, int users, long durationMs, long thinkMs) throws InterruptedException {
+        long end = System.currentTimeMillis() + durationMs;
+        List<Thread> threads = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            String user = "user" + u;
+            // Everyone shows up during the first third, most of them towards the deadline
+            long arrival = (long) (durationMs / 3.0 * Math.sqrt(ThreadLocalRandom.current().nextDouble()));
+            Thread thread = new Thread(() -> orderPage(groupId, user, arrival, end, thinkMs), user);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void orderPage(String groupId, String user, long arrivalMs, long end, long thinkMs) {
+        Random random = ThreadLocalRandom.current();
+        List<OrderLedger.Entry> mine = new ArrayList<>();
+        int seq = 0;
+        try {
+            Thread.sleep(arrivalMs);
+            while (System.currentTimeMillis() < end) {
+                getGroup(groupId);
+                double roll = random.nextDouble();
+                if (mine.isEmpty() && roll < 0.2) {
+                    // Orders for a couple of colleagues too, in one request
+                    int count = 2 + random.nextInt(2);
+                    mine.addAll(placeOrders(groupId, user, seq, count, random));
+                    seq += count;
+                    getGroup(groupId);
+                } else if (mine.isEmpty() || roll < 0.05) {
+                    placeOrder(groupId, user, ++seq, random).ifPresent(mine::add);
+                    getGroup(groupId);
+                } else if (roll < 0.20) {
+                    // Changed their mind: delete one order and order something else
+                    OrderLedger.Entry entry = mine.remove(random.nextInt(mine.size()));
+                    deleteOrder(groupId, entry);
+                    getGroup(groupId);
+                    placeOrder(groupId, user, ++seq, random).ifPresent(mine::add);
+                    getGroup(groupId);
+                }
+                Thread.sleep((long) (thinkMs * (0.5 + random.nextDouble())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Optional<OrderLedger.Entry> placeOrder(String groupId, String user, int seq, Random random) {
+        int item = random.nextInt(ITEMS.length);
+        int quantity = random.nextInt(10) == 0 ? 2 : 1;
+        OrderLedger.Entry entry = ledger.newEntry("lt-" + user + "-" + seq, user, quantity, PRICES[item] * quantity);
+        HttpResponse<String> response = send("post order", "POST", "/api/groups/" + groupId + "/orders",
+                orderPayload(entry, item, quantity, random));
+        entry.placed = OrderLedger.outcome(response.statusCode());
+        if (entry.placed == OrderLedger.Outcome.OK) {
+            try {
+                entry.id = String.valueOf(mapper.readValue(response.body(), Map.class).get("id"));
+            } catch (IOException e) {
+                entry.placed = OrderLedger.Outcome.UNKNOWN;
+            }
+            return Optional.of(entry);
+        }
+        return Optional.empty();
+    }
+
+    private List<OrderLedger.Entry> placeOrders(String groupId, String user, int seq, int count, Random random) {
+        List<OrderLedger.Entry> entries = new ArrayList<>();
+        List<Map<String, Object>> payload = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            int item = random.nextInt(ITEMS.length);
+            OrderLedger.Entry entry = ledger.newEntry("lt-" + user + "-" + (seq + i), user, 1, PRICES[item]);
+            entries.add(entry);
+            payload.add(orderPayload(entry, item, 1, random));
+        }
+        HttpResponse<String> response = send("post batch", "POST", "/api/groups/" + groupId + "/orders/batch",
+                payload);
+        OrderLedger.Outcome outcome = OrderLedger.outcome(response.statusCode());
+        List<String> ids = new ArrayList<>();
+        if (outcome == OrderLedger.Outcome.OK) {
+            try {
+                List<Map<String, Object>> created = mapper.readValue(response.body(), new TypeReference<>() {
+                });
+                created.forEach(order -> ids.add(String.valueOf(order.get("id"))));
+            } catch (IOException e) {
+                outcome = OrderLedger.Outcome.UNKNOWN;
+            }
+        }
+        if (outcome == OrderLedger.Outcome.OK && ids.size() != count) {
+            outcome = OrderLedger.Outcome.UNKNOWN;
+        }
+        for (int i = 0; i < count; i++) {
+            entries.get(i).placed = outcome;
+            if (outcome == OrderLedger.Outcome.OK) {
+                entries.get(i).id = ids.get(i);
+            }
+        }
+        return outcome == OrderLedger.Outcome.OK ? entries : List.of();
+    }
+
+    private Map<String, Object> orderPayload(OrderLedger.Entry entry, int item, int quantity, Random random) {
+        return Map.of("userName", entry.user, "itemName", ITEMS[item], "basePrice", PRICES[item],
+                "riceLevel", RICE[random.nextInt(RICE.length)], "quantity", quantity, "note", entry.tag);
+    }
+
+    private void deleteOrder(String groupId, OrderLedger.Entry entry) {
+        HttpResponse<String> response = send("delete order", "DELETE",
+                "/api/groups/" + groupId + "/orders/" + entry.id, null);
+        entry.deleted = OrderLedger.outcome(response.statusCode());
+    }
+
+    // Like a browser cache: every user thread revalidates its last group page with If-None-Match
+    private final ThreadLocal<CachedPage> cachedGroup = new ThreadLocal<>();
+
+    private record CachedPage(String path, String etag, String body) {
+    }
+
+    private List<Map<String, Object>> getGroup(String groupId) {
+        String path = "/api/groups/" + groupId;
+        CachedPage cached = cachedGroup.get();
+        boolean revalidate = cached != null && cached.path().equals(path);
+        HttpResponse<String> response = send("get group", "GET", path, null,
+                revalidate ? Map.of("If-None-Match", cached.etag()) : Map.of());
+        String json;
+        if (response.statusCode() == 304 && revalidate) {
+            json = cached.body();
+        } else if (response.statusCode() == 200) {
+            json = response.body();
+            response.headers().firstValue("ETag")
+                    .ifPresent(etag -> cachedGroup.set(new CachedPage(path, etag, json)));
+        } else {
+            return null;
+        }
+        try {
+            Map<String, Object> body = mapper.readValue(json, new TypeReference<>() {
+            });
+            return mapper.convertValue(body.get("orders"), new TypeReference<>() {
+            });
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> getSummary(String groupId) {
+        HttpResponse<String> response = send("get summary", "GET", "/api/groups/" + groupId + "/summary", null);
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        try {
+            return mapper.readValue(response.body(), new TypeReference<>() {
+            });
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The summary endpoint's totals against the same numbers added up from the order list.
+     */
+    private List<String> verifySummary(String groupId, List<Map<String, Object>> orders) {
+        Map<String, Object> summary = getSummary(groupId);
+        if (summary == null) {
+            return List.of("summary of group " + groupId + " could not be read");
+        }
+        long quantity = 0;
+        long total = 0;
+        long paid = 0;
+        for (Map<String, Object> order : orders) {
+            long price = ((Number) order.get("totalPrice")).longValue();
+            quantity += ((Number) order.get("quantity")).longValue();
+            total += price;
+            paid += Boolean.TRUE.equals(order.get("paid")) ? price : 0;
+        }
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("orderCount", (long) orders.size());
+        expected.put("quantity", quantity);
+        expected.put("totalAmount", total);
+        expected.put("paidAmount", paid);
+        expected.put("unpaidAmount", total - paid);
+        List<String> problems = new ArrayList<>();
+        expected.forEach((field, value) -> {
+            Object actual = summary.get(field);
+            if (!(actual instanceof Number number) || number.longValue() != value) {
+                problems.add("summary: " + field + " " + actual + ", orders add up to " + value);
+            }
+        });
+        return problems;
+    }
+
+    /**
+     * The settlement page: each admin loads the group and ticks off their share of the orders,
+     * reloading the page now and then.
+     */
+    void settle(String groupId, int admins) throws InterruptedException {
+        List<Map<String, Object>> orders = getGroup(groupId);
+        if (orders == null) {
+            return;
+        }
+        Map<String, OrderLedger.Entry> byId = new ConcurrentHashMap<>();
+        for (OrderLedger.Entry entry : ledger.entries()) {
+            if (entry.id != null) {
+                byId.put(entry.id, entry);
+            }
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int a = 0; a < admins; a++) {
+            int admin = a;
+            Thread thread = new Thread(() -> {
+                for (int i = admin; i < orders.size(); i += admins) {
+                    String id = String.valueOf(orders.get(i).get("id"));
+                    HttpResponse<String> response = send("patch paid", "PATCH",
+                            "/api/groups/" + groupId + "/orders/" + id + "/paid", Map.of("paid", true));
+                    OrderLedger.Entry entry = byId.get(id);
+                    if (entry != null) {
+                        entry.paid = OrderLedger.outcome(response.statusCode());
+                    }
+                    if (i % 10 == admin) {
+                        getGroup(groupId);
+                        getSummary(groupId);
+                    }
+                }
+            }, "admin" + a);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    List<String> verify(String groupId) throws InterruptedException {
+        List<String> problems = List.of("group " + groupId + " could not be read");
+        // Reads may lag behind writes by a cache refresh; give them a few seconds to settle
+        for (int attempt = 0; attempt < 10; attempt++) {
+            List<Map<String, Object>> orders = getGroup(groupId);
+            if (orders != null) {
+                problems = ledger.verify(orders, true);
+                if (problems.isEmpty()) {
+                    problems = verifySummary(groupId, orders);
+                }
+                if (problems.isEmpty()) {
+                    break;
+                }
+            }
+            Thread.sleep(1000);
+        }
+        return new ArrayList<>(problems);
+    }
+
+    /**
+     * Checks the Orders tab of the emulator: one row per live order, no repeated ids, and a
+     * TOTAL row that agrees with the rows above it.
+     */
+    List<String> verifySheet(ConfigurableApplicationContext context, String groupId) {
+        SheetsEmulator emulator = context.getBean(GoogleSheetsRepository.class).getEmulator();
+        if (emulator == null) {
+            return List.of();
+        }
+        String spreadsheetId = context.getEnvironment().getProperty("google.sheets.spreadsheet-id-taichung", "");
+        List<List<Object>> rows = emulator.rows(spreadsheetId.isBlank() ? "taichung" : spreadsheetId, "Orders");
+        List<Map<String, Object>> orders = new ArrayList<>();
+        List<Object> total = null;
+        int quantity = 0;
+        long sum = 0;
+        for (List<Object> row : rows.subList(Math.min(1, rows.size()), rows.size())) {
+            String id = row.isEmpty() || row.get(0) == null ? "" : row.get(0).toString();
+            if (id.equals("TOTAL")) {
+                if (total != null) {
+                    return List.of("sheet: more than one TOTAL row");
+                }
+                total = row;
+            } else if (!id.isEmpty() && row.size() > 10 && groupId.equals(String.valueOf(row.get(1)))) {
+                quantity += Integer.parseInt(String.valueOf(row.get(6)));
+                sum += Long.parseLong(String.valueOf(row.get(7)));
+                orders.add(Map.of("id", id, "note", String.valueOf(row.get(8)),
+                        "paid", "TRUE".equalsIgnoreCase(String.valueOf(row.get(10)))));
+            }
+        }
+        List<String> problems = new ArrayList<>();
+        ledger.verify(orders, true).forEach(problem -> problems.add("sheet " + problem));
+        if (!orders.isEmpty() && total == null) {
+            problems.add("sheet: no TOTAL row below " + orders.size() + " orders");
+        } else if (total != null && (!String.valueOf(total.get(6)).equals(quantity + " 份")
+                || !String.valueOf(total.get(7)).equals(String.valueOf(sum)))) {
+            problems.add("sheet: TOTAL row " + total + " does not match " + quantity + " 份 / " + sum);
+        }
+        System.out.printf("Orders tab: %d live orders, %d portions, NT$%d, %d Sheets API requests%n%n",
+                orders.size(), quantity, sum, emulator.requestCount());
+        return problems;
+    }
+
+    boolean report(List<String> problems, double maxErrorRate) {
+        System.out.println(EndpointStats.header());
+        int count = 0;
+        int failed = 0;
+        for (EndpointStats endpoint : new TreeMap<>(stats).values()) {
+            System.out.println(endpoint.report());
+            count += endpoint.count();
+            failed += endpoint.failed();
+        }
+        double errorRate = count == 0 ? 0 : 100.0 * failed / count;
+        System.out.printf("%nRequests %d, errors %d (%.2f%%, max %.2f%%)%nLedger %s%n", count, failed, errorRate,
+                maxErrorRate, ledger.summary());
+        if (problems.isEmpty()) {
+            System.out.println("Verification passed: no lost, duplicated or ghost orders");
+        } else {
+            System.out.println("Verification FAILED:");
+            problems.forEach(problem -> System.out.println("  " + problem));
+        }
+        return problems.isEmpty() && errorRate <= maxErrorRate;
+    }
+
+    // Never throws: a failed call is recorded with status 0
+    private HttpResponse<String> send(String endpoint, String method, String path, Object body) {
+        return send(endpoint, method, path, body, Map.of());
+    }
+
+    private HttpResponse<String> send(String endpoint, String method, String path, Object body,
+            Map<String, String> headers) {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, EndpointStats::new);
+        long start = System.nanoTime();
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json");
+            headers.forEach(request::header);
+            request.method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            endpointStats.record(System.nanoTime() - start, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - start, 0);
+            return new FailedResponse(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            endpointStats.record(System.nanoTime() - start, 0);
+            return new FailedResponse("interrupted");
+        }
+    }
+
+    private record FailedResponse(String body) implements HttpResponse<String> {
+        public int statusCode() {
+            return 0;
+        }
+
+        public HttpRequest request() {
+            return null;
+        }
+
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of(), (a, b) -> true);
+        }
+
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        public URI uri() {
+            return null;
+        }
+
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.lunch.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What the clients believe happened to every order they tried to place. Each POST carries a
+ * unique tag in its note, so an order found in the group can be traced back to the request
+ * that created it, even when that request timed out and never saw the id.
+ */
+class OrderLedger {
+
+    enum Outcome {
+        // 2xx: the order must exist (until deleted)
+        OK,
+        // 4xx: the order must not exist
+        REJECTED,
+        // 5xx or no response: the order may exist, but at most once
+        UNKNOWN
+    }
+
+    static final class Entry {
+        final String tag;
+        final String user;
+        final int quantity;
+        final int totalPrice;
+        volatile Outcome placed;
+        volatile String id;
+        volatile Outcome deleted;
+        volatile Outcome paid;
+
+        Entry(String tag, String user, int quantity, int totalPrice) {
+            this.tag = tag;
+            this.user = user;
+            this.quantity = quantity;
+            this.totalPrice = totalPrice;
+        }
+
+        // Whether the order is expected in the group, null when either answer is acceptable
+        Boolean expectedLive() {
+            if (placed == Outcome.REJECTED || deleted == Outcome.OK) {
+                return false;
+            }
+            if (placed == Outcome.UNKNOWN || deleted == Outcome.UNKNOWN) {
+                return null;
+            }
+            return true;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    Entry newEntry(String tag, String user, int quantity, int totalPrice) {
+        Entry entry = new Entry(tag, user, quantity, totalPrice);
+        entries.put(tag, entry);
+        return entry;
+    }
+
+    Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    static Outcome outcome(int status) {
+        if (status >= 200 && status < 300) {
+            return Outcome.OK;
+        }
+        return status >= 400 && status < 500 ? Outcome.REJECTED : Outcome.UNKNOWN;
+    }
+
+    /**
+     * Compares the ledger with the orders the group ended up with ("id", "note", "paid") and
+     * returns one line per lost, duplicated, resurrected or unknown order, or per unpaid
+     * order that was marked paid.
+     */
+    List<String> verify(List<Map<String, Object>> orders, boolean settled) {
+        List<String> problems = new ArrayList<>();
+        Map<String, List<Map<String, Object>>> byTag = new HashMap<>();
+        Map<String, Integer> byId = new HashMap<>();
+        for (Map<String, Object> order : orders) {
+            String id = String.valueOf(order.get("id"));
+            if (byId.merge(id, 1, Integer::sum) == 2) {
+                problems.add("duplicate: order id " + id + " appears more than once");
+            }
+            String tag = String.valueOf(order.get("note"));
+            if (!entries.containsKey(tag)) {
+                problems.add("ghost: order " + id + " (" + tag + ") was never placed by the driver");
+                continue;
+            }
+            byTag.computeIfAbsent(tag, t -> new ArrayList<>()).add(order);
+        }
+
+        for (Entry entry : entries.values()) {
+            List<Map<String, Object>> found = byTag.getOrDefault(entry.tag, List.of());
+            if (found.size() > 1) {
+                problems.add("duplicate: " + entry.tag + " stored " + found.size() + " times");
+            }
+            Boolean expected = entry.expectedLive();
+            if (Boolean.TRUE.equals(expected) && found.isEmpty()) {
+                problems.add("lost: " + entry.tag + " (" + entry.id + ") was accepted but is missing");
+            } else if (Boolean.FALSE.equals(expected) && !found.isEmpty()) {
+                problems.add((entry.deleted == Outcome.OK ? "resurrected: " : "ghost: ") + entry.tag
+                        + " is present after " + (entry.deleted == Outcome.OK ? "a successful delete" : "a rejected post"));
+            }
+            if (!found.isEmpty() && entry.id != null && !entry.id.equals(found.get(0).get("id"))) {
+                problems.add("mismatch: " + entry.tag + " was returned as " + entry.id + " but stored as "
+                        + found.get(0).get("id"));
+            }
+            if (settled && !found.isEmpty() && entry.paid == Outcome.OK
+                    && !Boolean.TRUE.equals(found.get(0).get("paid"))) {
+                problems.add("unpaid: " + entry.tag + " was marked paid but reads as unpaid");
+            }
+        }
+        return problems;
+    }
+
+    Map<String, Integer> summary() {
+        Map<String, Integer> summary = new LinkedHashMap<>();
+        for (Entry entry : entries.values()) {
+            summary.merge("post " + entry.placed, 1, Integer::sum);
+            if (entry.deleted != null) {
+                summary.merge("delete " + entry.deleted, 1, Integer::sum);
+            }
+            if (entry.paid != null) {
+                summary.merge("paid " + entry.paid, 1, Integer::sum);
+            }
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.lunch.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Caffeine caches, each with its own size bound and expiry: cache.spec.&lt;name&gt; (a
+ * Caffeine spec such as "maximumSize=8,expireAfterWrite=60s"), falling back to
+ * cache.default-spec. Caches are created on first use, so a new @Cacheable name only needs
+ * its spec property. Statistics are recorded for /api/debug/caches.
+ */
+@Slf4j
+@Configuration
+public class CacheConfig {
+
+    private static final String DEFAULT_SPEC = "maximumSize=100,expireAfterWrite=5m";
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        String defaultSpec = environment.getProperty("cache.default-spec", DEFAULT_SPEC);
+        return new CaffeineCacheManager() {
+            @Override
+            protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(String name) {
+                String spec = environment.getProperty("cache.spec." + name, defaultSpec);
+                log.info("[CACHE] {}: {}", name, spec);
+                return Caffeine.from(spec).recordStats().build();
+            }
+        };
+    }
+}
@@ -18,6 +18,7 @@ public class CorsConfig {
                                 "https://mina851011.github.io")
                         .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("ETag", "X-Next-Cursor")
                         .allowCredentials(true);
             }
         };
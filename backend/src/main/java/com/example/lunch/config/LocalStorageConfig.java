@@ -0,0 +1,28 @@
+package com.example.lunch.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.io.File;
+
+@Configuration
+public class LocalStorageConfig {
+
+    /**
+     * Embedded H2 database used by regions configured with storage.backend.<region>=local.
+     * Hikari opens the file lazily, so Sheets-only deployments never touch the disk.
+     */
+    @Bean
+    public DataSource localStorageDataSource(@Value("${storage.local.path:data/lunch}") String path) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:file:" + new File(path).getAbsolutePath() + ";DB_CLOSE_ON_EXIT=FALSE");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaximumPoolSize(4);
+        dataSource.setPoolName("local-storage");
+        return dataSource;
+    }
+}
@@ -3,14 +3,18 @@ package com.example.lunch.config;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 @Component
-public class RegionInterceptor implements HandlerInterceptor {
+public class RegionInterceptor implements AsyncHandlerInterceptor {
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         String region = request.getHeader("X-Region");
+        if (region == null && request.getRequestURI().endsWith("/events")) {
+            // EventSource cannot send headers: /api/groups/{id}/events?region=taipei; only there
+            region = request.getParameter("region");
+        }
         RegionContext.set(region);
         return true;
     }
@@ -20,4 +24,11 @@ public class RegionInterceptor implements HandlerInterceptor {
             Exception ex) {
         RegionContext.clear();
     }
+
+    // SSE: the request thread is released while the stream stays open
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        RegionContext.clear();
+    }
 }
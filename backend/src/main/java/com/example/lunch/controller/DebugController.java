@@ -1,12 +1,18 @@
 package com.example.lunch.controller;
 
 import com.example.lunch.repository.GoogleSheetsRepository;
+import com.example.lunch.repository.SheetsCircuitBreaker;
+import com.example.lunch.repository.SheetsQuotaGuard;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +23,15 @@ public class DebugController {
     @Autowired
     private GoogleSheetsRepository repository;
 
+    @Autowired
+    private SheetsQuotaGuard quotaGuard;
+
+    @Autowired
+    private SheetsCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @GetMapping("/restaurants")
     public Map<String, Object> debugRestaurants() {
         Map<String, Object> result = new HashMap<>();
@@ -32,4 +47,37 @@ public class DebugController {
         }
         return result;
     }
+
+    // Sheets API requests per region and minute, newest first
+    @GetMapping("/sheets-quota")
+    public Map<String, List<SheetsQuotaGuard.MinuteUsage>> sheetsQuota() {
+        return quotaGuard.usage();
+    }
+
+    @GetMapping("/sheets-circuit")
+    public Map<String, Object> sheetsCircuit() {
+        return circuitBreaker.status();
+    }
+
+    // Hit/miss/eviction counts per cache since startup
+    @GetMapping("/caches")
+    public Map<String, Object> caches() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+            CacheStats stats = nativeCache.stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", nativeCache.estimatedSize());
+            entry.put("hits", stats.hitCount());
+            entry.put("misses", stats.missCount());
+            entry.put("hitRate", stats.hitRate());
+            entry.put("evictions", stats.evictionCount());
+            entry.put("keys", nativeCache.asMap().keySet());
+            result.put(name, entry);
+        }
+        return result;
+    }
 }
@@ -1,13 +1,29 @@
 package com.example.lunch.controller;
 
+import com.example.lunch.config.RegionContext;
 import com.example.lunch.model.DiningGroup;
 import com.example.lunch.model.Order;
+import com.example.lunch.model.OrderSummary;
+import com.example.lunch.repository.SheetsUnavailableException;
+import com.example.lunch.service.GroupCursor;
+import com.example.lunch.service.GroupEventStream;
+import com.example.lunch.service.GroupIndex;
 import com.example.lunch.service.LineNotificationService;
 import com.example.lunch.service.GroupService;
+import com.example.lunch.service.GroupVersions;
 import com.example.lunch.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -20,6 +36,8 @@ import com.example.lunch.model.MenuItem;
 @RequestMapping("/api/groups")
 public class GroupController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private GroupService groupService;
 
@@ -29,6 +47,24 @@ public class GroupController {
     @Autowired(required = false)
     private LineNotificationService lineNotificationService;
 
+    @Autowired
+    private GroupEventStream groupEventStream;
+
+    @Autowired
+    private GroupVersions groupVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${groups.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${groups.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${orders.batch.max-size:20}")
+    private int maxBatchSize;
+
     @PostMapping
     public ResponseEntity<DiningGroup> createGroup(@RequestBody Map<String, Object> payload) throws IOException {
         String name = (String) payload.get("name");
@@ -53,6 +89,8 @@ public class GroupController {
             return ResponseEntity.ok(
                     groupService.createGroup(name, deadline, menu, restaurantName, menuImageUrl, note,
                             restaurantPhone));
+        } catch (SheetsUnavailableException e) {
+            throw e;
         } catch (IOException e) {
             // Return 400 Bad Request if group overlap detected
             throw new org.springframework.web.server.ResponseStatusException(
@@ -114,8 +152,8 @@ public class GroupController {
                         .body(Map.of("error", "LINE notification service is not configured"));
             }
 
-            List<Order> orders = orderService.getOrdersByGroup(id);
-            if (orders.isEmpty()) {
+            OrderSummary summary = orderService.getSummary(id);
+            if (summary.orderCount() == 0) {
                 groupService.markSummarySent(id);
                 return ResponseEntity.ok(Map.of("message", "Group closed. No orders to notify."));
             }
@@ -124,7 +162,7 @@ public class GroupController {
                     group.getName(),
                     newDeadline,
                     group.getRestaurantPhone(),
-                    orders);
+                    summary);
             groupService.markSummarySent(id);
 
             return ResponseEntity.ok(Map.of("message", "Group closed and LINE notification sent"));
@@ -135,29 +173,139 @@ public class GroupController {
         }
     }
 
+    /**
+     * Without limit or cursor: every group, oldest first (as in the sheet). With them: a page of
+     * the history, newest first, and X-Next-Cursor for the next page unless this is the last.
+     * fields=id,name,... keeps only those fields of each group.
+     */
     @GetMapping
-    public ResponseEntity<List<DiningGroup>> getHistory() throws IOException {
-        return ResponseEntity.ok(groupService.getAllGroups());
+    public ResponseEntity<StreamingResponseBody> getHistory(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            WebRequest request) throws IOException {
+        List<String> projection;
+        try {
+            projection = GroupListWriter.parseFields(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        GroupCursor after = null;
+        if (cursor != null) {
+            after = GroupCursor.decode(cursor);
+            if (after == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+        if (limit != null && (limit < 1 || limit > maxPageSize)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be 1.." + maxPageSize);
+        }
+
+        GroupIndex index = groupService.getGroupIndex();
+        String etag = groupVersions.listTag(index);
+        if (request.checkNotModified(etag)) {
+            return null; // 304; the ETag header is set either way
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache());
+        List<DiningGroup> groups;
+        if (limit == null && after == null) {
+            groups = index.all();
+        } else {
+            GroupIndex.Page page = index.page(after, limit != null ? limit : defaultPageSize);
+            groups = page.groups();
+            if (page.next() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.next().encode());
+            }
+        }
+        return response.body(out -> GroupListWriter.write(objectMapper, groups, projection, out));
     }
 
+    // If-None-Match with the group's current version: 304 without reading menu or orders
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getGroup(@PathVariable String id) throws IOException {
-        DiningGroup group = groupService.getGroup(id);
+    public ResponseEntity<Map<String, Object>> getGroup(@PathVariable String id, WebRequest request)
+            throws IOException {
+        DiningGroup group = groupService.findGroup(id);
         if (group == null) {
             return ResponseEntity.notFound().build();
         }
-        List<Order> orders = orderService.getOrdersByGroup(id);
-        return ResponseEntity.ok(Map.of("group", group, "orders", orders));
+        String etag = groupVersions.groupTag(RegionContext.get(), id);
+        if (request.checkNotModified(etag)) {
+            return null; // 304
+        }
+        GroupService.GroupPage page = groupService.loadMenuAndOrders(group);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(Map.of("group", page.group(), "orders", page.orders()));
+    }
+
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<OrderSummary> getSummary(@PathVariable String id, WebRequest request)
+            throws IOException {
+        if (groupService.findGroup(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = groupVersions.groupTag(RegionContext.get(), id);
+        if (request.checkNotModified(etag)) {
+            return null; // 304
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(orderService.getSummary(id));
+    }
+
+    /**
+     * Live changes of the group as Server-Sent Events: order-added (the order), order-removed
+     * ({id}), paid-changed ({id, paid}) and deadline-changed ({deadline}).
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String id) throws IOException {
+        if (groupService.findGroup(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(groupEventStream.subscribe(RegionContext.get(), id));
     }
 
     @PostMapping("/{id}/orders")
     public ResponseEntity<Order> addOrder(@PathVariable String id, @RequestBody Order order) throws IOException {
-        DiningGroup group = groupService.getGroup(id);
-        if (group == null) {
+        List<Order> orders = ordersForGroup(id, List.of(order));
+        if (orders == null) {
             return ResponseEntity.notFound().build();
         }
-        order.setGroupId(id);
-        return ResponseEntity.ok(orderService.addOrder(order));
+        return ResponseEntity.ok(orderService.addOrder(orders.get(0)));
+    }
+
+    /**
+     * Several orders at once (e.g. for colleagues), saved in one write; returns them with their ids,
+     * in request order.
+     */
+    @PostMapping("/{id}/orders/batch")
+    public ResponseEntity<List<Order>> addOrders(@PathVariable String id, @RequestBody List<Order> orders)
+            throws IOException {
+        if (orders.isEmpty() || orders.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "1.." + maxBatchSize + " orders per batch");
+        }
+        List<Order> forGroup = ordersForGroup(id, orders);
+        if (forGroup == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(orderService.addOrders(forGroup));
+    }
+
+    /**
+     * Checks new orders and binds them to the group, or returns null if there is no such group.
+     * The cached group is enough here, its menu is not needed.
+     */
+    private List<Order> ordersForGroup(String id, List<Order> orders) throws IOException {
+        for (int i = 0; i < orders.size(); i++) {
+            if (orders.get(i) == null || orders.get(i).getBasePrice() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        orders.size() == 1 ? "basePrice is required" : "Order " + i + " has no basePrice");
+            }
+        }
+        if (groupService.findGroup(id) == null) {
+            return null;
+        }
+        return orders.stream().map(order -> order.toBuilder().groupId(id).build()).toList();
     }
 
     @DeleteMapping("/{groupId}/orders/{orderId}")
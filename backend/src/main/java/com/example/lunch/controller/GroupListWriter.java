@@ -0,0 +1,78 @@
+package com.example.lunch.controller;
+
+import com.example.lunch.model.DiningGroup;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes a group list as a JSON array straight to the response, one group at a time, with
+ * either every field or only the requested ones (fields=id,name,deadline).
+ */
+final class GroupListWriter {
+
+    // The JSON properties of DiningGroup, in the order it serializes them
+    private static final Map<String, Function<DiningGroup, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", DiningGroup::getId);
+        FIELDS.put("name", DiningGroup::getName);
+        FIELDS.put("deadline", DiningGroup::getDeadline);
+        FIELDS.put("createdAt", DiningGroup::getCreatedAt);
+        FIELDS.put("menu", DiningGroup::getMenu);
+        FIELDS.put("restaurantName", DiningGroup::getRestaurantName);
+        FIELDS.put("menuImageUrl", DiningGroup::getMenuImageUrl);
+        FIELDS.put("note", DiningGroup::getNote);
+        FIELDS.put("restaurantPhone", DiningGroup::getRestaurantPhone);
+        FIELDS.put("region", DiningGroup::getRegion);
+    }
+
+    private GroupListWriter() {
+    }
+
+    /**
+     * The known fields of a fields= value in serialization order, null for all fields.
+     *
+     * @throws IllegalArgumentException on an unknown field
+     */
+    static List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        List<String> requested = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!name.isEmpty() && !FIELDS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + ", expected some of " + FIELDS.keySet());
+            }
+            requested.add(name);
+        }
+        return FIELDS.keySet().stream().filter(requested::contains).toList();
+    }
+
+    static void write(ObjectMapper objectMapper, List<DiningGroup> groups, List<String> fields, OutputStream out)
+            throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            for (DiningGroup group : groups) {
+                if (fields == null) {
+                    generator.writeObject(group);
+                    continue;
+                }
+                generator.writeStartObject();
+                for (String field : fields) {
+                    generator.writeObjectField(field, FIELDS.get(field).apply(group));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
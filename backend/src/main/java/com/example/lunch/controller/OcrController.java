@@ -117,8 +117,8 @@ public class OcrController {
                 text = text.replaceAll("```json", "").replaceAll("```", "").trim();
 
                 MenuItem[] menuItems = objectMapper.readValue(text, MenuItem[].class);
-                for (MenuItem item : menuItems) {
-                    item.setName(normalizeMenuName(item.getName()));
+                for (int i = 0; i < menuItems.length; i++) {
+                    menuItems[i] = menuItems[i].withName(normalizeMenuName(menuItems[i].getName()));
                 }
 
                 return ResponseEntity.ok(Map.of(
@@ -139,7 +139,7 @@ public class OcrController {
         }
     }
 
-    private String normalizeMenuName(String rawName) {
+    String normalizeMenuName(String rawName) {
         if (rawName == null) {
             return "";
         }
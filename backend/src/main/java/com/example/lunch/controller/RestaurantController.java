@@ -1,10 +1,12 @@
 package com.example.lunch.controller;
 
 import com.example.lunch.model.Restaurant;
-import com.example.lunch.repository.GoogleSheetsRepository;
+import com.example.lunch.service.RestaurantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -13,16 +15,22 @@ import java.util.List;
 public class RestaurantController {
 
     @Autowired
-    private GoogleSheetsRepository repository;
+    private RestaurantService restaurantService;
 
     @GetMapping
-    public ResponseEntity<List<Restaurant>> getAllRestaurants() {
-        return ResponseEntity.ok(repository.getAllRestaurants());
+    public ResponseEntity<List<Restaurant>> getAllRestaurants(WebRequest request) {
+        RestaurantService.Catalog catalog = restaurantService.getCatalog();
+        // 304 with no body when the client's copy (If-None-Match) is still current
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(catalog.restaurants());
     }
 
     @PostMapping
     public ResponseEntity<Restaurant> createRestaurant(@RequestBody Restaurant restaurant) throws java.io.IOException {
-        repository.saveRestaurant(restaurant);
-        return ResponseEntity.ok(restaurant);
+        return ResponseEntity.ok(restaurantService.saveRestaurant(restaurant));
     }
 }
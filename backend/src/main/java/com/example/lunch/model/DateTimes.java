@@ -0,0 +1,125 @@
+package com.example.lunch.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Parses the timestamps found in the sheets and the API: ISO with offset or zone
+ * ("2026-10-14T11:30:00+08:00", "...Z", "...+08:00[Asia/Taipei]"), ISO local from the
+ * datetime-local input ("2026-10-14T11:30"), the app's own "yyyy-MM-dd HH:mm:ss" and plain
+ * dates. Local values are Taipei time. The format is read off the text position by position,
+ * so a value that is not in one format is never retried in the next one, and an
+ * unparseable value returns null instead of throwing.
+ */
+public final class DateTimes {
+
+    public static final ZoneId TAIPEI = ZoneId.of("Asia/Taipei");
+
+    private DateTimes() {
+    }
+
+    public static Instant parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.trim();
+        int length = text.length();
+        // yyyy-MM-dd
+        if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return null;
+        }
+        if (length == 10) {
+            return LocalDateTime.of(year, month, day, 0, 0).atZone(TAIPEI).toInstant();
+        }
+
+        // [T ]HH:mm[:ss[.fraction]]
+        if (length < 16 || (text.charAt(10) != 'T' && text.charAt(10) != ' ') || text.charAt(13) != ':') {
+            return null;
+        }
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = 0;
+        int nanos = 0;
+        int pos = 16;
+        if (pos < length && text.charAt(pos) == ':') {
+            second = digits(text, pos + 1, 2);
+            pos += 3;
+            if (pos < length && text.charAt(pos) == '.') {
+                int start = ++pos;
+                while (pos < length && pos - start < 9 && isDigit(text.charAt(pos))) {
+                    nanos = nanos * 10 + (text.charAt(pos++) - '0');
+                }
+                for (int i = pos - start; i < 9; i++) {
+                    nanos *= 10;
+                }
+            }
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        LocalDateTime local = LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+        if (pos == length) {
+            return local.atZone(TAIPEI).toInstant();
+        }
+
+        // Z | ±HH:mm, optionally followed by [Region/City]; the offset alone fixes the instant
+        ZoneOffset offset;
+        char sign = text.charAt(pos);
+        if (sign == 'Z') {
+            offset = ZoneOffset.UTC;
+            pos++;
+        } else if ((sign == '+' || sign == '-') && pos + 6 <= length && text.charAt(pos + 3) == ':') {
+            int offsetHours = digits(text, pos + 1, 2);
+            int offsetMinutes = digits(text, pos + 4, 2);
+            int seconds = offsetHours * 3600 + offsetMinutes * 60;
+            if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59 || seconds > 18 * 3600) {
+                return null;
+            }
+            offset = ZoneOffset.ofTotalSeconds(sign == '-' ? -seconds : seconds);
+            pos += 6;
+        } else {
+            return null;
+        }
+        if (pos < length && (text.charAt(pos) != '[' || text.charAt(length - 1) != ']')) {
+            return null;
+        }
+        return local.toInstant(offset);
+    }
+
+    // -1 unless text[start, start + count) are all digits
+    private static int digits(String text, int start, int count) {
+        if (start + count > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> Year.isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+}
@@ -1,34 +1,57 @@
 package com.example.lunch.model;
 
-import lombok.Data;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Value;
 import lombok.Builder;
-import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.UUID;
 
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+/**
+ * Immutable, so one instance can be cached and shared by all requests; a changed group is a
+ * new instance made with toBuilder().
+ */
+@Value
 public class DiningGroup {
-    private String id;
-    private String name;
-    private String deadline;
-    private String createdAt;
-    private List<MenuItem> menu;
-    private String restaurantName;
-    private String menuImageUrl;
-    private String note; // 菜單備註
-    private String restaurantPhone; // 店家電話
-    private String region; // "taichung" or "taipei"
+    String id;
+    String name;
+    String deadline;
+    String createdAt;
+    List<MenuItem> menu;
+    String restaurantName;
+    String menuImageUrl;
+    String note; // 菜單備註
+    String restaurantPhone; // 店家電話
+    String region; // "taichung" or "taipei"
 
-    public DiningGroup(String name, String deadline) {
-        this.id = UUID.randomUUID().toString();
+    // deadline and createdAt parsed once, when the group is built; null if unreadable
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    Instant deadlineInstant;
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    Instant createdInstant;
+
+    @Builder(toBuilder = true)
+    @Jacksonized
+    public DiningGroup(String id, String name, String deadline, String createdAt, List<MenuItem> menu,
+            String restaurantName, String menuImageUrl, String note, String restaurantPhone, String region) {
+        this.id = id;
         this.name = name;
         this.deadline = deadline;
-        this.createdAt = java.time.ZonedDateTime.now(java.time.ZoneId.of("Asia/Taipei"))
-                .format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        this.createdAt = createdAt;
+        this.menu = menu == null ? null : List.copyOf(menu);
+        this.restaurantName = restaurantName;
+        this.menuImageUrl = menuImageUrl;
+        this.note = note;
+        this.restaurantPhone = restaurantPhone;
+        this.region = region;
+        this.deadlineInstant = DateTimes.parse(deadline);
+        this.createdInstant = DateTimes.parse(createdAt);
     }
 }
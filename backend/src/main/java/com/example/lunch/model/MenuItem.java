@@ -1,15 +1,17 @@
 package com.example.lunch.model;
 
-import lombok.Data;
+import lombok.Value;
+import lombok.With;
 import lombok.Builder;
-import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
 
-@Data
+@Value
+@With
 @Builder
-@NoArgsConstructor
+@Jacksonized
 @AllArgsConstructor
 public class MenuItem {
-    private String name;
-    private Integer price;
+    String name;
+    Integer price;
 }
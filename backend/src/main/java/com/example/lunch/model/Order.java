@@ -1,26 +1,52 @@
 package com.example.lunch.model;
 
-import lombok.Data;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Value;
 import lombok.Builder;
-import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
 
-import java.util.UUID;
+import java.time.Instant;
 
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+/**
+ * Immutable like {@link DiningGroup}; a changed order is a new instance made with toBuilder().
+ */
+@Value
 public class Order {
-    private String id;
-    private String groupId;
-    private String userName;
-    private String itemName;
-    private Integer basePrice;
-    private String riceLevel; // FULL, HALF, LESS
-    private Integer quantity;
-    private Integer totalPrice;
-    private String note;
-    private String createdAt;
-    private Boolean paid; // 是否已收款
+    String id;
+    String groupId;
+    String userName;
+    String itemName;
+    Integer basePrice;
+    String riceLevel; // FULL, HALF, LESS
+    Integer quantity;
+    Integer totalPrice;
+    String note;
+    String createdAt;
+    Boolean paid; // 是否已收款
+
+    // createdAt parsed once, when the order is built; null if unreadable
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    Instant createdInstant;
+
+    @Builder(toBuilder = true)
+    @Jacksonized
+    public Order(String id, String groupId, String userName, String itemName, Integer basePrice, String riceLevel,
+            Integer quantity, Integer totalPrice, String note, String createdAt, Boolean paid) {
+        this.id = id;
+        this.groupId = groupId;
+        this.userName = userName;
+        this.itemName = itemName;
+        this.basePrice = basePrice;
+        this.riceLevel = riceLevel;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.note = note;
+        this.createdAt = createdAt;
+        this.paid = paid;
+        this.createdInstant = DateTimes.parse(createdAt);
+    }
 }
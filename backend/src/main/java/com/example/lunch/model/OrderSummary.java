@@ -0,0 +1,30 @@
+package com.example.lunch.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totals of one group's orders, as served by /api/groups/{id}/summary and sent to LINE.
+ * lines: one per item + rice level + note, sorted by label; users: in order of first order.
+ */
+public record OrderSummary(
+        String groupId,
+        int orderCount,
+        int quantity,
+        int totalAmount,
+        int paidAmount,
+        int unpaidAmount,
+        List<Line> lines,
+        List<UserTotal> users) {
+
+    /**
+     * label is what the LINE summary shows, e.g. "五香雞腿 飯少 不要辣"; users maps each orderer
+     * to their quantity of this line.
+     */
+    public record Line(String label, String itemName, String riceLevel, String note, int basePrice,
+            int quantity, int amount, Map<String, Integer> users) {
+    }
+
+    public record UserTotal(String userName, int orderCount, int quantity, int amount, int paidAmount) {
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.lunch.repository;
 
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.SheetsScopes;
 import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.GoogleCredentials;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 import com.example.lunch.config.RegionContext;
@@ -17,6 +20,7 @@ import com.example.lunch.model.Order;
 import com.example.lunch.model.Restaurant;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -24,17 +28,27 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Repository
 public class GoogleSheetsRepository {
 
+    // Numbers and TRUE/FALSE arrive typed instead of as display text; dates keep their text
+    private static final String VALUE_RENDER_OPTION = "UNFORMATTED_VALUE";
+    private static final String DATE_TIME_RENDER_OPTION = "FORMATTED_STRING";
+
     @Value("${google.sheets.application-name:LunchOrderingSystem}")
     private String applicationName;
 
@@ -50,10 +64,88 @@ public class GoogleSheetsRepository {
     @Value("${google.sheets.credentials-json:}")
     private String credentialsJson;
 
+    // Point the client at a Sheets API stand-in instead of Google (no credentials needed)
+    @Value("${sheets.root-url:}")
+    private String rootUrl;
+
+    @Value("${sheets.emulator.enabled:false}")
+    private boolean emulatorEnabled;
+
+    @Value("${sheets.emulator.port:0}")
+    private int emulatorPort;
+
+    @Value("${sheets.emulator.latency-ms:0}")
+    private long emulatorLatencyMs;
+
+    @Value("${sheets.emulator.latency-jitter-ms:0}")
+    private long emulatorLatencyJitterMs;
+
+    @Value("${sheets.emulator.throttle-rate:0}")
+    private double emulatorThrottleRate;
+
+    @Value("${sheets.emulator.error-rate:0}")
+    private double emulatorErrorRate;
+
+    @Value("${sheets.emulator.quota-per-minute:0}")
+    private int emulatorQuotaPerMinute;
+
+    @Value("${sheets.mirror.enabled:false}")
+    private boolean mirrorEnabled;
+
+    // Optional two-column range (tab name | checksum formula) polled instead of the data itself
+    @Value("${sheets.mirror.checksum-range:}")
+    private String mirrorChecksumRange;
+
+    @Value("${sheets.mirror.full-refresh-ms:300000}")
+    private long mirrorFullRefreshMs;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SheetsQuotaGuard quotaGuard;
+
+    @Autowired
+    private SheetsCircuitBreaker circuitBreaker;
+
+    @Value("${sheets.resilience.stale-while-revalidate:false}")
+    private boolean staleWhileRevalidate;
+
+    @Value("${sheets.resilience.fresh-ms:2000}")
+    private long swrFreshMs;
+
+    @Value("${sheets.resilience.max-stale-ms:600000}")
+    private long swrMaxStaleMs;
+
+    @Value("${sheets.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${sheets.http.read-timeout-ms:15000}")
+    private int readTimeoutMs;
+
+    private final Map<String, SheetsMirror> lastGoodValues = new ConcurrentHashMap<>();
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final ExecutorService revalidator = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "sheets-revalidate");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, SheetsMirror> mirrors = new ConcurrentHashMap<>();
+
     private Sheets sheetsService;
+    private SheetsEmulator emulator;
     private boolean isMockMode = false;
     private List<List<Object>> mockData = new ArrayList<>();
 
+    // Tabs and header rows of a new emulated spreadsheet
+    private static final Map<String, List<Object>> EMULATOR_SHEETS = Map.of(
+            "Groups", GroupRows.HEADER,
+            "Menus", MenuRows.HEADER,
+            "Orders", OrderRows.HEADER,
+            "History Orders", OrderRows.HEADER,
+            "Restaurants", List.of("ID", "Name", "MenuJSON", "MenuImageUrl", "Note", "Phone"));
+
     private final List<DiningGroup> mockGroups = new ArrayList<>();
     private final List<Order> mockOrders = new ArrayList<>();
     private final List<MenuItem> mockMenu = new ArrayList<>(); // Legacy single menu
@@ -61,6 +153,26 @@ public class GoogleSheetsRepository {
 
     @PostConstruct
     public void init() throws IOException, GeneralSecurityException {
+        if (emulatorEnabled) {
+            emulator = new SheetsEmulator(emulatorPort, EMULATOR_SHEETS);
+            emulator.setFaults(new SheetsEmulator.Faults(emulatorLatencyMs, emulatorLatencyJitterMs,
+                    emulatorThrottleRate, emulatorErrorRate, emulatorQuotaPerMinute));
+            emulator.start();
+            rootUrl = emulator.rootUrl();
+        }
+        if (rootUrl != null && !rootUrl.isBlank()) {
+            log.info("Initializing Google Sheets service against {}", rootUrl);
+            if (spreadsheetIdTaichung == null || spreadsheetIdTaichung.isBlank()) {
+                spreadsheetIdTaichung = "taichung";
+            }
+            if (spreadsheetIdTaipei == null || spreadsheetIdTaipei.isBlank()) {
+                spreadsheetIdTaipei = "taipei";
+            }
+            initializeSheetsService(request -> {
+            });
+            return;
+        }
+
         // Try Environment Variable JSON first
         if (credentialsJson != null && !credentialsJson.trim().isEmpty()) {
             try {
@@ -96,13 +208,40 @@ public class GoogleSheetsRepository {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (emulator != null) {
+            emulator.stop();
+        }
+    }
+
+    /**
+     * The emulator, when sheets.emulator.enabled, for tools that inspect or tune it.
+     */
+    public SheetsEmulator getEmulator() {
+        return emulator;
+    }
+
     private void initializeSheetsService(GoogleCredentials credentials) throws GeneralSecurityException, IOException {
-        sheetsService = new Sheets.Builder(
+        initializeSheetsService(new HttpCredentialsAdapter(credentials));
+    }
+
+    private void initializeSheetsService(HttpRequestInitializer credentials) throws GeneralSecurityException, IOException {
+        HttpRequestInitializer guarded = quotaGuard.wrap(credentials);
+        var builder = new Sheets.Builder(
                 GoogleNetHttpTransport.newTrustedTransport(),
                 GsonFactory.getDefaultInstance(),
-                new HttpCredentialsAdapter(credentials))
-                .setApplicationName(applicationName)
-                .build();
+                request -> {
+                    guarded.initialize(request);
+                    // Fail in seconds, not after the client's default 20s per attempt
+                    request.setConnectTimeout(connectTimeoutMs);
+                    request.setReadTimeout(readTimeoutMs);
+                })
+                .setApplicationName(applicationName);
+        if (rootUrl != null && !rootUrl.isBlank()) {
+            builder.setRootUrl(rootUrl.endsWith("/") ? rootUrl : rootUrl + "/");
+        }
+        sheetsService = builder.build();
     }
 
     private String currentSpreadsheetId() {
@@ -131,13 +270,348 @@ public class GoogleSheetsRepository {
                 return new ArrayList<>(mockData); // Default to Groups
             }
         }
-        return sheetsService.spreadsheets().values()
-                .get(currentSpreadsheetId(), range)
-                .execute()
+        SheetsMirror mirror = mirror();
+        if (mirror == null) {
+            return fetchRange(range);
+        }
+        List<List<Object>> rows = mirror.get(range);
+        if (rows == null) {
+            long generation = mirror.generation(SheetsMirror.sheetOf(range));
+            rows = fetchRange(range);
+            mirror.put(range, rows, generation);
+        }
+        return rows;
+    }
+
+    private List<List<Object>> fetchRange(String range) throws IOException {
+        return readThrough(List.of(range), () -> Collections.singletonList(fetchRangeNow(range))).get(0);
+    }
+
+    private List<List<Object>> fetchRangeNow(String range) throws IOException {
+        String spreadsheetId = currentSpreadsheetId();
+        List<List<Object>> values = quotaGuard.coalesce(spreadsheetId + "|get|" + range,
+                () -> getValues(spreadsheetId, range, false));
+        return copyRows(values);
+    }
+
+    private List<List<Object>> getValues(String spreadsheetId, String range, boolean write) throws IOException {
+        return execute(sheetsService.spreadsheets().values()
+                .get(spreadsheetId, range)
+                .setValueRenderOption(VALUE_RENDER_OPTION)
+                .setDateTimeRenderOption(DATE_TIME_RENDER_OPTION), write)
                 .getValues();
     }
 
+    /**
+     * Read for read-modify-write paths: straight from the API on the write budget, past the
+     * mirror, stale values and reads already in flight, so rows written back are never older
+     * than this call. If it fails the write fails; old rows are never served instead.
+     */
+    public List<List<Object>> readDataForWrite(String range) throws IOException {
+        if (isMockMode) {
+            return readData(range);
+        }
+        return getValues(currentSpreadsheetId(), range, true);
+    }
+
+    /**
+     * {@link #readDataForWrite} for several ranges in one request.
+     */
+    public List<List<List<Object>>> readRangesForWrite(List<String> ranges) throws IOException {
+        if (isMockMode) {
+            return readRanges(ranges);
+        }
+        return toRows(ranges, batchGet(currentSpreadsheetId(), ranges, true));
+    }
+
+    // Coalesced reads hand the same rows to every caller, and callers edit their rows
+    private static List<List<Object>> copyRows(List<List<Object>> rows) {
+        if (rows == null) {
+            return null;
+        }
+        List<List<Object>> copy = new ArrayList<>(rows.size());
+        for (List<Object> row : rows) {
+            copy.add(new ArrayList<>(row));
+        }
+        return copy;
+    }
+
+    /**
+     * Reads several ranges in one request (values.batchGet). Rows come back in the order of
+     * the requested ranges; an empty range yields an empty list.
+     */
+    public List<List<List<Object>>> readRanges(List<String> ranges) throws IOException {
+        List<List<List<Object>>> result = new ArrayList<>();
+        if (isMockMode) {
+            for (String range : ranges) {
+                result.add(range.startsWith("Menus") ? new ArrayList<>(mockMenuData) : readData(range));
+            }
+            return result;
+        }
+        SheetsMirror mirror = mirror();
+        if (mirror == null) {
+            return fetchRanges(ranges);
+        }
+
+        // Only the ranges that are not mirrored yet go to the API, still in one request
+        List<String> missing = new ArrayList<>();
+        List<Long> generations = new ArrayList<>();
+        for (String range : ranges) {
+            List<List<Object>> rows = mirror.get(range);
+            result.add(rows);
+            if (rows == null) {
+                missing.add(range);
+                generations.add(mirror.generation(SheetsMirror.sheetOf(range)));
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<List<List<Object>>> fetched = fetchRanges(missing);
+            for (int i = 0, m = 0; i < result.size(); i++) {
+                if (result.get(i) == null) {
+                    mirror.put(missing.get(m), fetched.get(m), generations.get(m));
+                    result.set(i, fetched.get(m++));
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<List<List<Object>>> fetchRanges(List<String> ranges) throws IOException {
+        return readThrough(ranges, () -> fetchRangesNow(ranges));
+    }
+
+    private List<List<List<Object>>> fetchRangesNow(List<String> ranges) throws IOException {
+        String spreadsheetId = currentSpreadsheetId();
+        // Own key space: a one-range batchGet must not be handed a get's rows
+        var response = quotaGuard.coalesce(spreadsheetId + "|batchGet|" + String.join("|", ranges),
+                () -> batchGet(spreadsheetId, ranges, false));
+        return toRows(ranges, response);
+    }
+
+    private com.google.api.services.sheets.v4.model.BatchGetValuesResponse batchGet(String spreadsheetId,
+            List<String> ranges, boolean write) throws IOException {
+        return execute(sheetsService.spreadsheets().values()
+                .batchGet(spreadsheetId)
+                .setRanges(ranges)
+                .setValueRenderOption(VALUE_RENDER_OPTION)
+                .setDateTimeRenderOption(DATE_TIME_RENDER_OPTION), write);
+    }
+
+    private static List<List<List<Object>>> toRows(List<String> ranges,
+            com.google.api.services.sheets.v4.model.BatchGetValuesResponse response) {
+        List<com.google.api.services.sheets.v4.model.ValueRange> valueRanges = response.getValueRanges();
+        List<List<List<Object>>> result = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            List<List<Object>> values = valueRanges != null && i < valueRanges.size()
+                    ? valueRanges.get(i).getValues()
+                    : null;
+            result.add(values != null ? copyRows(values) : new ArrayList<>());
+        }
+        return result;
+    }
+
+    /**
+     * Stale-while-revalidate: ranges fetched less than fresh-ms ago are served as they are,
+     * older ones (up to max-stale-ms) are served at once while a background task re-reads
+     * them. Past that the read goes to the API, and if it fails the last known good values
+     * are served instead of the error.
+     */
+    private List<List<List<Object>>> readThrough(List<String> ranges,
+            SheetsQuotaGuard.SheetsCall<List<List<List<Object>>>> fetch) throws IOException {
+        SheetsMirror lastGood = lastGood();
+        if (lastGood == null) {
+            return fetch.call();
+        }
+        List<List<List<Object>>> known = new ArrayList<>();
+        long oldest = 0;
+        for (String range : ranges) {
+            List<List<Object>> rows = lastGood.get(range);
+            if (rows == null) {
+                known = null;
+                break;
+            }
+            known.add(rows);
+            oldest = Math.max(oldest, lastGood.ageMs(range));
+        }
+        if (known != null && oldest <= swrMaxStaleMs) {
+            if (oldest > swrFreshMs) {
+                revalidate(lastGood, ranges, fetch);
+            }
+            return known;
+        }
+        try {
+            return fetchInto(lastGood, ranges, fetch);
+        } catch (IOException e) {
+            if (known == null) {
+                throw e;
+            }
+            log.warn("[SHEETS] Read of {} failed, serving values from {} s ago: {}", ranges, oldest / 1000, e.getMessage());
+            return known;
+        }
+    }
+
+    private List<List<List<Object>>> fetchInto(SheetsMirror lastGood, List<String> ranges,
+            SheetsQuotaGuard.SheetsCall<List<List<List<Object>>>> fetch) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        ranges.forEach(range -> generations.add(lastGood.generation(SheetsMirror.sheetOf(range))));
+        List<List<List<Object>>> values = fetch.call();
+        for (int i = 0; i < ranges.size(); i++) {
+            lastGood.put(ranges.get(i), values.get(i), generations.get(i));
+        }
+        return values;
+    }
+
+    private void revalidate(SheetsMirror lastGood, List<String> ranges,
+            SheetsQuotaGuard.SheetsCall<List<List<List<Object>>>> fetch) {
+        String region = RegionContext.get();
+        String key = region + "|" + String.join("|", ranges);
+        if (circuitBreaker.isOpen() || !revalidating.add(key)) {
+            return;
+        }
+        revalidator.execute(() -> {
+            RegionContext.set(region);
+            try {
+                fetchInto(lastGood, ranges, fetch);
+            } catch (Exception e) {
+                log.debug("[SHEETS] Background refresh of {} failed: {}", ranges, e.getMessage());
+            } finally {
+                RegionContext.clear();
+                revalidating.remove(key);
+            }
+        });
+    }
+
+    private SheetsMirror lastGood() {
+        if (!staleWhileRevalidate || isMockMode) {
+            return null;
+        }
+        return lastGoodValues.computeIfAbsent(RegionContext.get(), region -> new SheetsMirror());
+    }
+
+    // GETs use the read budget, everything else the write budget
+    private <T> T execute(com.google.api.services.sheets.v4.SheetsRequest<T> request) throws IOException {
+        return execute(request, !"GET".equals(request.getRequestMethod()));
+    }
+
+    private <T> T execute(com.google.api.services.sheets.v4.SheetsRequest<T> request, boolean write)
+            throws IOException {
+        return circuitBreaker.call(currentSpreadsheetId(), write, request::execute);
+    }
+
+    private SheetsMirror mirror() {
+        if (!mirrorEnabled || isMockMode) {
+            return null;
+        }
+        return mirrors.computeIfAbsent(RegionContext.get(), region -> new SheetsMirror());
+    }
+
+    // Called after every write: the written tab is read from the API again on next use
+    private void invalidate(String range) {
+        quotaGuard.forgetInFlight(currentSpreadsheetId() + "|");
+        SheetsMirror mirror = mirror();
+        if (mirror != null) {
+            mirror.invalidate(SheetsMirror.sheetOf(range));
+        }
+        SheetsMirror lastGood = lastGood();
+        if (lastGood != null) {
+            lastGood.invalidate(SheetsMirror.sheetOf(range));
+        }
+    }
+
+    /**
+     * Re-reads mirrored ranges that may have changed in the sheet itself: all of them every
+     * full-refresh interval (or on every run when no checksum range is configured), otherwise
+     * only the tabs whose checksum changed. Tabs found changed are published as
+     * {@link SheetChangedEvent}.
+     */
+    public void refreshMirrors() {
+        if (!mirrorEnabled || isMockMode) {
+            return;
+        }
+        for (String region : Set.copyOf(mirrors.keySet())) {
+            RegionContext.set(region);
+            try {
+                refreshMirror();
+            } finally {
+                RegionContext.clear();
+            }
+        }
+    }
+
+    private void refreshMirror() {
+        SheetsMirror mirror = mirror();
+        if (mirror == null) {
+            return;
+        }
+        Set<String> mirrored = mirror.mirroredRanges();
+        if (mirrored.isEmpty()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            boolean full = mirrorChecksumRange.isBlank() || now - mirror.lastFullRefresh >= mirrorFullRefreshMs;
+            Set<String> changedChecksums = mirrorChecksumRange.isBlank() ? Set.of() : changedChecksums(mirror);
+            List<String> stale = new ArrayList<>();
+            for (String range : mirrored) {
+                if (full || changedChecksums.contains(SheetsMirror.sheetOf(range))) {
+                    stale.add(range);
+                }
+            }
+            if (stale.isEmpty()) {
+                return;
+            }
+
+            List<Long> generations = new ArrayList<>();
+            stale.forEach(range -> generations.add(mirror.generation(SheetsMirror.sheetOf(range))));
+            List<List<List<Object>>> values = fetchRangesNow(stale);
+            Set<String> changedSheets = new java.util.LinkedHashSet<>();
+            for (int i = 0; i < stale.size(); i++) {
+                if (mirror.put(stale.get(i), values.get(i), generations.get(i))) {
+                    changedSheets.add(SheetsMirror.sheetOf(stale.get(i)));
+                }
+            }
+            if (full) {
+                mirror.lastFullRefresh = now;
+            }
+            for (String sheet : changedSheets) {
+                log.info("[MIRROR] {} changed in the sheet, region={}", sheet, RegionContext.get());
+                eventPublisher.publishEvent(new SheetChangedEvent(RegionContext.get(), sheet));
+            }
+        } catch (Exception e) {
+            // e.g. a mirrored tab was deleted by hand; start over from live reads
+            log.warn("[MIRROR] Refresh failed for region={}, dropping mirror: {}", RegionContext.get(), e.getMessage());
+            mirror.clear();
+        }
+    }
+
+    private Set<String> changedChecksums(SheetsMirror mirror) throws IOException {
+        Set<String> changed = new HashSet<>();
+        List<List<Object>> rows = fetchRangeNow(mirrorChecksumRange);
+        if (rows == null) {
+            return changed;
+        }
+        for (List<Object> row : rows) {
+            if (row.size() >= 2) {
+                String sheet = row.get(0).toString();
+                String checksum = row.get(1).toString();
+                String previous = mirror.checksums.put(sheet, checksum);
+                if (previous != null && !previous.equals(checksum)) {
+                    changed.add(sheet);
+                }
+            }
+        }
+        return changed;
+    }
+
     public void appendData(String range, List<List<Object>> values) throws IOException {
+        appendRows(range, values);
+    }
+
+    /**
+     * Appends rows and returns the sheet row number the first one landed on, taken from
+     * the append response; -1 when unknown (mock mode).
+     */
+    public int appendRows(String range, List<List<Object>> values) throws IOException {
         if (isMockMode) {
             if (range.contains("Orders")) {
                 mockOrdersData.addAll(values);
@@ -147,13 +621,23 @@ public class GoogleSheetsRepository {
                 mockData.addAll(values); // Groups
             }
             System.out.println("MOCK: Appended data to " + range + ": " + values);
-            return;
+            return -1;
         }
         var body = new com.google.api.services.sheets.v4.model.ValueRange().setValues(values);
-        sheetsService.spreadsheets().values()
+        var response = execute(sheetsService.spreadsheets().values()
                 .append(currentSpreadsheetId(), range, body)
-                .setValueInputOption("USER_ENTERED")
-                .execute();
+                .setValueInputOption("USER_ENTERED"));
+        invalidate(range);
+        return response.getUpdates() == null ? -1 : firstRowOf(response.getUpdates().getUpdatedRange());
+    }
+
+    // "'History Orders'!A120:K125" -> 120
+    private static int firstRowOf(String a1Range) {
+        if (a1Range == null) {
+            return -1;
+        }
+        java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("![A-Z]+(\\d+)").matcher(a1Range);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
     }
 
     public void updateData(String range, List<List<Object>> values) throws IOException {
@@ -162,10 +646,29 @@ public class GoogleSheetsRepository {
             return;
         }
         var body = new com.google.api.services.sheets.v4.model.ValueRange().setValues(values);
-        sheetsService.spreadsheets().values()
+        execute(sheetsService.spreadsheets().values()
                 .update(currentSpreadsheetId(), range, body)
+                .setValueInputOption("USER_ENTERED"));
+        invalidate(range);
+    }
+
+    /**
+     * Writes several ranges in one request (values.batchUpdate).
+     */
+    public void batchUpdateData(Map<String, List<List<Object>>> rangeValues) throws IOException {
+        if (isMockMode) {
+            log.info("MOCK: Batch updated {} ranges", rangeValues.size());
+            return;
+        }
+        List<com.google.api.services.sheets.v4.model.ValueRange> data = new ArrayList<>();
+        rangeValues.forEach((range, values) -> data.add(
+                new com.google.api.services.sheets.v4.model.ValueRange().setRange(range).setValues(values)));
+        var body = new com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest()
                 .setValueInputOption("USER_ENTERED")
-                .execute();
+                .setData(data);
+        execute(sheetsService.spreadsheets().values()
+                .batchUpdate(currentSpreadsheetId(), body));
+        rangeValues.keySet().forEach(this::invalidate);
     }
 
     public void clearData(String range) throws IOException {
@@ -176,35 +679,85 @@ public class GoogleSheetsRepository {
                 mockData.clear();
             return;
         }
-        sheetsService.spreadsheets().values()
-                .clear(currentSpreadsheetId(), range, new com.google.api.services.sheets.v4.model.ClearValuesRequest())
-                .execute();
+        execute(sheetsService.spreadsheets().values()
+                .clear(currentSpreadsheetId(), range, new com.google.api.services.sheets.v4.model.ClearValuesRequest()));
+        invalidate(range);
     }
 
-    public void archiveOrders() throws IOException {
-        String sourceRange = "Orders!A2:K";
-        List<List<Object>> allRows = readData(sourceRange);
+    /**
+     * Titles of the tabs of the region's spreadsheet.
+     */
+    public Set<String> listSheets() throws IOException {
+        if (isMockMode) {
+            return new HashSet<>(mockSheetTitles);
+        }
+        Set<String> titles = new HashSet<>();
+        for (var sheet : getSheetProperties()) {
+            titles.add(sheet.getTitle());
+        }
+        return titles;
+    }
 
-        if (allRows != null && !allRows.isEmpty()) {
-            // Filter: Only archive real orders (no TOTAL rows)
-            List<List<Object>> realOrders = allRows.stream()
-                    .filter(row -> row.size() >= 1 && !"TOTAL".equals(row.get(0).toString()))
-                    .collect(Collectors.toList());
+    /**
+     * Adds a tab and writes its header row, so data starts at row 2 like the other tabs.
+     */
+    public void addSheet(String title, List<Object> headerRow) throws IOException {
+        if (isMockMode) {
+            mockSheetTitles.add(title);
+            log.info("MOCK: Added sheet {}", title);
+            return;
+        }
+        var request = new com.google.api.services.sheets.v4.model.Request()
+                .setAddSheet(new com.google.api.services.sheets.v4.model.AddSheetRequest()
+                        .setProperties(new com.google.api.services.sheets.v4.model.SheetProperties().setTitle(title)));
+        execute(sheetsService.spreadsheets()
+                .batchUpdate(currentSpreadsheetId(),
+                        new com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest()
+                                .setRequests(List.of(request))));
+        updateData("'" + title + "'!A1", List.of(headerRow));
+        log.info("Added sheet {}", title);
+    }
 
-            if (!realOrders.isEmpty()) {
-                if (isMockMode) {
-                    mockHistoryOrdersData.addAll(realOrders);
-                } else {
-                    appendData("History Orders!A:A", realOrders);
-                }
+    /**
+     * Deletes whole tabs in one request. Unknown titles are ignored.
+     */
+    public void deleteSheets(Collection<String> titles) throws IOException {
+        if (isMockMode) {
+            mockSheetTitles.removeAll(titles);
+            log.info("MOCK: Deleted sheets {}", titles);
+            return;
+        }
+        List<com.google.api.services.sheets.v4.model.Request> requests = new ArrayList<>();
+        for (var sheet : getSheetProperties()) {
+            if (titles.contains(sheet.getTitle())) {
+                requests.add(new com.google.api.services.sheets.v4.model.Request()
+                        .setDeleteSheet(new com.google.api.services.sheets.v4.model.DeleteSheetRequest()
+                                .setSheetId(sheet.getSheetId())));
             }
-            // Clear the whole live orders sheet
-            clearData(sourceRange);
-            log.info("Archived {} real orders to History Orders", realOrders.size());
         }
+        if (requests.isEmpty()) {
+            return;
+        }
+        execute(sheetsService.spreadsheets()
+                .batchUpdate(currentSpreadsheetId(),
+                        new com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest()
+                                .setRequests(requests)));
+        titles.forEach(this::invalidate);
+        log.info("Deleted sheets {}", titles);
+    }
+
+    private List<com.google.api.services.sheets.v4.model.SheetProperties> getSheetProperties() throws IOException {
+        var spreadsheet = execute(sheetsService.spreadsheets().get(currentSpreadsheetId())
+                .setFields("sheets.properties(sheetId,title)"));
+        List<com.google.api.services.sheets.v4.model.SheetProperties> properties = new ArrayList<>();
+        if (spreadsheet.getSheets() != null) {
+            spreadsheet.getSheets().forEach(sheet -> properties.add(sheet.getProperties()));
+        }
+        return properties;
     }
 
-    private List<List<Object>> mockHistoryOrdersData = new ArrayList<>();
+    private final Set<String> mockSheetTitles = new HashSet<>(
+            List.of("Groups", "Menus", "Orders", "History Orders", "Restaurants"));
 
     // Separate storage for generic data
     private List<List<Object>> mockOrdersData = new ArrayList<>();
@@ -218,7 +771,7 @@ public class GoogleSheetsRepository {
 
         List<List<Object>> rows = new ArrayList<>();
         for (com.example.lunch.model.MenuItem item : menu) {
-            rows.add(List.of(groupId, item.getName(), item.getPrice()));
+            rows.add(MenuRows.encode(groupId, item));
         }
 
         if (isMockMode) {
@@ -230,10 +783,10 @@ public class GoogleSheetsRepository {
         // Real Sheets Implementation
         try {
             var body = new com.google.api.services.sheets.v4.model.ValueRange().setValues(rows);
-            sheetsService.spreadsheets().values()
+            execute(sheetsService.spreadsheets().values()
                     .append(currentSpreadsheetId(), "Menus!A:C", body) // Assuming 'Menus' sheet exists
-                    .setValueInputOption("USER_ENTERED")
-                    .execute();
+                    .setValueInputOption("USER_ENTERED"));
+            invalidate("Menus!A:C");
         } catch (IOException e) {
             System.err.println("Failed to save menu to Sheets: " + e.getMessage());
             // Don't re-throw to avoid breaking the group creation flow?
@@ -243,38 +796,6 @@ public class GoogleSheetsRepository {
         }
     }
 
-    public List<com.example.lunch.model.MenuItem> getMenu(String groupId) throws IOException {
-        List<com.example.lunch.model.MenuItem> menu = new ArrayList<>();
-
-        List<List<Object>> allRows;
-        if (isMockMode) {
-            allRows = mockMenuData;
-        } else {
-            // Real Sheets Implementation
-            try {
-                com.google.api.services.sheets.v4.model.ValueRange response = sheetsService.spreadsheets().values()
-                        .get(currentSpreadsheetId(), "Menus!A2:C")
-                        .execute();
-                allRows = response.getValues();
-                if (allRows == null) {
-                    allRows = Collections.emptyList();
-                }
-            } catch (IOException e) {
-                System.err.println("Failed to load menu from Sheets: " + e.getMessage());
-                allRows = Collections.emptyList();
-            }
-        }
-
-        for (List<Object> row : allRows) {
-            if (row.size() >= 3 && row.get(0).toString().equals(groupId)) {
-                menu.add(new com.example.lunch.model.MenuItem(
-                        row.get(1).toString(),
-                        Integer.parseInt(row.get(2).toString())));
-            }
-        }
-        return menu;
-    }
-
     private final ObjectMapper objectMapper = new ObjectMapper(); // Fix broken structure
 
     public void saveRestaurant(Restaurant restaurant) throws IOException {
@@ -290,7 +811,7 @@ public class GoogleSheetsRepository {
         }
 
         // Real Sheets Implementation with Upsert
-        List<List<Object>> allRows = readData("Restaurants!A:E");
+        List<List<Object>> allRows = readDataForWrite("Restaurants!A:E");
         int rowIndex = -1;
         if (allRows != null) {
             for (int i = 0; i < allRows.size(); i++) {
@@ -316,10 +837,10 @@ public class GoogleSheetsRepository {
             String updateRange = "Restaurants!A" + rowIndex + ":F" + rowIndex;
             var body = new com.google.api.services.sheets.v4.model.ValueRange()
                     .setValues(Collections.singletonList(rowData));
-            sheetsService.spreadsheets().values()
+            execute(sheetsService.spreadsheets().values()
                     .update(currentSpreadsheetId(), updateRange, body)
-                    .setValueInputOption("USER_ENTERED")
-                    .execute();
+                    .setValueInputOption("USER_ENTERED"));
+            invalidate(updateRange);
             log.info("Updated restaurant: {} at row {}", restaurant.getName(), rowIndex);
         } else {
             // Append new row
@@ -346,7 +867,7 @@ public class GoogleSheetsRepository {
                             String menuJson = row.get(2).toString();
                             String menuImageUrl = row.size() >= 4 ? row.get(3).toString() : null;
                             String note = row.size() >= 5 ? row.get(4).toString() : null;
-                            String phone = row.size() >= 6 ? formatPhoneNumber(row.get(5)) : null;
+                            String phone = SheetCells.phone(row, 5);
 
                             // Skip if strictly header logic
                             if (menuJson.equalsIgnoreCase("MenuJSON") || menuJson.equalsIgnoreCase("Menu"))
@@ -369,25 +890,13 @@ public class GoogleSheetsRepository {
         return results;
     }
 
-    private String formatPhoneNumber(Object phoneObj) {
-        if (phoneObj == null) {
-            return null;
-        }
-        String phone = phoneObj.toString().trim();
-        // 如果是 9 碼數字 (例如 970093839)，補上開頭的 0
-        if (phone.matches("\\d{9}")) {
-            return "0" + phone;
-        }
-        return phone;
-    }
-
     public void updateGroupDeadline(String groupId, String newDeadline) throws IOException {
         if (isMockMode) {
             log.info("MOCK: Updated deadline for group {} to {}", groupId, newDeadline);
             return;
         }
         log.info("Attempting to update deadline for group: {}", groupId);
-        List<List<Object>> allRows = readData("Groups!A:A");
+        List<List<Object>> allRows = readDataForWrite("Groups!A:A");
         int rowIndex = -1;
         if (allRows != null) {
             log.info("Searching through {} rows in Groups!A:A", allRows.size());
@@ -407,10 +916,10 @@ public class GoogleSheetsRepository {
             String range = "Groups!C" + rowIndex;
             var body = new com.google.api.services.sheets.v4.model.ValueRange()
                     .setValues(Collections.singletonList(Collections.singletonList(newDeadline)));
-            sheetsService.spreadsheets().values()
+            execute(sheetsService.spreadsheets().values()
                     .update(currentSpreadsheetId(), range, body)
-                    .setValueInputOption("USER_ENTERED")
-                    .execute();
+                    .setValueInputOption("USER_ENTERED"));
+            invalidate(range);
         } else {
             log.warn("Group ID {} not found in column A", groupId);
             throw new IOException("Group not found with ID: " + groupId);
@@ -0,0 +1,71 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.model.DiningGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column layout of the Groups tab (A:I) and the codec between its rows and
+ * {@link DiningGroup}. Columns E to I were added over time, so older rows may end early.
+ */
+final class GroupRows {
+
+    static final int ID = 0;
+    static final int NAME = 1;
+    static final int DEADLINE = 2;
+    static final int CREATED_AT = 3;
+    static final int RESTAURANT_NAME = 4;
+    static final int MENU_IMAGE_URL = 5;
+    static final int NOTE = 6;
+    static final int RESTAURANT_PHONE = 7;
+    static final int REGION = 8;
+
+    static final List<Object> HEADER = List.of("ID", "Name", "Deadline", "CreatedAt", "RestaurantName",
+            "MenuImageUrl", "Note", "RestaurantPhone", "Region");
+
+    private GroupRows() {
+    }
+
+    static String id(List<Object> row) {
+        return SheetCells.text(row, ID);
+    }
+
+    static String createdAt(List<Object> row) {
+        return SheetCells.text(row, CREATED_AT);
+    }
+
+    static boolean isGroup(List<Object> row) {
+        return row.size() > CREATED_AT;
+    }
+
+    static DiningGroup decode(List<Object> row) {
+        String region = SheetCells.textOrNull(row, REGION);
+        return DiningGroup.builder()
+                .id(id(row))
+                .name(SheetCells.text(row, NAME))
+                .deadline(SheetCells.text(row, DEADLINE))
+                .createdAt(createdAt(row))
+                .restaurantName(SheetCells.textOrNull(row, RESTAURANT_NAME))
+                .menuImageUrl(SheetCells.textOrNull(row, MENU_IMAGE_URL))
+                .note(SheetCells.textOrNull(row, NOTE))
+                .restaurantPhone(SheetCells.phone(row, RESTAURANT_PHONE))
+                .region(region != null ? region : "taichung")
+                .build();
+    }
+
+    static List<Object> encode(DiningGroup group) {
+        // Use ArrayList to allow nulls, though Frontend sends default
+        List<Object> row = new ArrayList<>();
+        row.add(group.getId());
+        row.add(group.getName());
+        row.add(group.getDeadline());
+        row.add(group.getCreatedAt());
+        row.add(group.getRestaurantName() != null ? group.getRestaurantName() : "");
+        row.add(group.getMenuImageUrl() != null ? group.getMenuImageUrl() : "");
+        row.add(group.getNote() != null ? group.getNote() : "");
+        row.add(group.getRestaurantPhone() != null ? group.getRestaurantPhone() : "");
+        row.add(group.getRegion() != null ? group.getRegion() : "taichung");
+        return row;
+    }
+}
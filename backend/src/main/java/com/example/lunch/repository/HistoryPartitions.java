@@ -0,0 +1,63 @@
+package com.example.lunch.repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Directory of the archived orders of one region. History is split into one tab per month
+ * ("History Orders yyyy-MM") and a group's orders go to the month the group was created in,
+ * so reading a group touches one partition however much history piles up. The old single
+ * "History Orders" tab is still read, but only for the groups that have rows there.
+ */
+class HistoryPartitions {
+
+    static final String LEGACY_SHEET = "History Orders";
+    static final String PARTITION_PREFIX = "History Orders ";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    /** groupId → partition tab title */
+    final Map<String, String> partitionByGroup = new ConcurrentHashMap<>();
+    /** groups that still have rows in the legacy tab */
+    final Set<String> legacyGroups = ConcurrentHashMap.newKeySet();
+    /** tabs that exist in the spreadsheet */
+    final Set<String> sheets = ConcurrentHashMap.newKeySet();
+
+    static String sheetFor(YearMonth month) {
+        return PARTITION_PREFIX + month.format(MONTH);
+    }
+
+    /**
+     * Month of a partition tab, or null for any other tab.
+     */
+    static YearMonth monthOf(String sheet) {
+        if (!sheet.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(sheet.substring(PARTITION_PREFIX.length()), MONTH);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Existing history tabs that can hold orders of the group.
+     */
+    List<String> sheetsOf(String groupId) {
+        List<String> result = new ArrayList<>();
+        String partition = partitionByGroup.get(groupId);
+        if (partition != null && sheets.contains(partition)) {
+            result.add(partition);
+        }
+        if (legacyGroups.contains(groupId) && sheets.contains(LEGACY_SHEET)) {
+            result.add(LEGACY_SHEET);
+        }
+        return result;
+    }
+}
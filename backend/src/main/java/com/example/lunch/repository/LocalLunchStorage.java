@@ -0,0 +1,270 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.config.RegionContext;
+import com.example.lunch.model.DiningGroup;
+import com.example.lunch.model.MenuItem;
+import com.example.lunch.model.Order;
+import com.example.lunch.model.Restaurant;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.text.Collator;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * {@link LunchStorage} backed by an embedded H2 database on local disk. All regions
+ * share one database file; every table carries a region column.
+ */
+@Slf4j
+@Component
+public class LocalLunchStorage implements LunchStorage {
+
+    private static final DateTimeFormatter CREATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS lunch_groups ("
+                    + " seq BIGINT AUTO_INCREMENT PRIMARY KEY, region VARCHAR(32) NOT NULL, id VARCHAR(64) NOT NULL,"
+                    + " name VARCHAR(255), deadline VARCHAR(64), created_at VARCHAR(64), restaurant_name VARCHAR(255),"
+                    + " menu_image_url VARCHAR(1024), note VARCHAR(4000), restaurant_phone VARCHAR(64))",
+            "CREATE UNIQUE INDEX IF NOT EXISTS lunch_groups_id ON lunch_groups (region, id)",
+            "CREATE TABLE IF NOT EXISTS menu_items ("
+                    + " seq BIGINT AUTO_INCREMENT PRIMARY KEY, region VARCHAR(32) NOT NULL, group_id VARCHAR(64) NOT NULL,"
+                    + " name VARCHAR(255), price INT)",
+            "CREATE INDEX IF NOT EXISTS menu_items_group ON menu_items (region, group_id)",
+            "CREATE TABLE IF NOT EXISTS orders ("
+                    + " seq BIGINT AUTO_INCREMENT PRIMARY KEY, region VARCHAR(32) NOT NULL, id VARCHAR(64) NOT NULL,"
+                    + " group_id VARCHAR(64) NOT NULL, user_name VARCHAR(255), item_name VARCHAR(255), base_price INT,"
+                    + " rice_level VARCHAR(16), quantity INT, total_price INT, note VARCHAR(4000), created_at VARCHAR(64),"
+                    + " paid BOOLEAN DEFAULT FALSE, archived BOOLEAN DEFAULT FALSE)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS orders_id ON orders (region, id)",
+            "CREATE INDEX IF NOT EXISTS orders_group ON orders (region, group_id)",
+            "CREATE TABLE IF NOT EXISTS restaurants ("
+                    + " seq BIGINT AUTO_INCREMENT PRIMARY KEY, region VARCHAR(32) NOT NULL, id VARCHAR(64) NOT NULL,"
+                    + " name VARCHAR(255), menu_json CLOB, menu_image_url VARCHAR(1024), note VARCHAR(4000),"
+                    + " phone VARCHAR(64))",
+            "CREATE UNIQUE INDEX IF NOT EXISTS restaurants_id ON restaurants (region, id)"
+    };
+
+    private static final RowMapper<DiningGroup> GROUP_MAPPER = (rs, rowNum) -> DiningGroup.builder()
+            .id(rs.getString("id"))
+            .name(rs.getString("name"))
+            .deadline(rs.getString("deadline"))
+            .createdAt(rs.getString("created_at"))
+            .restaurantName(rs.getString("restaurant_name"))
+            .menuImageUrl(rs.getString("menu_image_url"))
+            .note(rs.getString("note"))
+            .restaurantPhone(rs.getString("restaurant_phone"))
+            .region(rs.getString("region"))
+            .build();
+
+    private static final RowMapper<Order> ORDER_MAPPER = (rs, rowNum) -> Order.builder()
+            .id(rs.getString("id"))
+            .groupId(rs.getString("group_id"))
+            .userName(rs.getString("user_name"))
+            .itemName(rs.getString("item_name"))
+            .basePrice(rs.getInt("base_price"))
+            .riceLevel(rs.getString("rice_level"))
+            .quantity(rs.getInt("quantity"))
+            .totalPrice(rs.getInt("total_price"))
+            .note(rs.getString("note"))
+            .createdAt(rs.getString("created_at"))
+            .paid(rs.getBoolean("paid"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile boolean schemaReady = false;
+
+    public LocalLunchStorage(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    private JdbcTemplate jdbc() {
+        if (!schemaReady) {
+            synchronized (this) {
+                if (!schemaReady) {
+                    for (String ddl : SCHEMA) {
+                        jdbcTemplate.execute(ddl);
+                    }
+                    schemaReady = true;
+                    log.info("Local storage schema ready");
+                }
+            }
+        }
+        return jdbcTemplate;
+    }
+
+    @Override
+    public List<DiningGroup> findAllGroups() {
+        return jdbc().query("SELECT * FROM lunch_groups WHERE region = ? ORDER BY seq", GROUP_MAPPER,
+                RegionContext.get());
+    }
+
+    @Override
+    public void saveGroup(DiningGroup group) {
+        jdbc().update("INSERT INTO lunch_groups (region, id, name, deadline, created_at, restaurant_name,"
+                + " menu_image_url, note, restaurant_phone) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                RegionContext.get(), group.getId(), group.getName(), group.getDeadline(), group.getCreatedAt(),
+                group.getRestaurantName(), group.getMenuImageUrl(), group.getNote(), group.getRestaurantPhone());
+    }
+
+    @Override
+    public void updateGroupDeadline(String groupId, String newDeadline) throws IOException {
+        int updated = jdbc().update("UPDATE lunch_groups SET deadline = ? WHERE region = ? AND id = ?",
+                newDeadline, RegionContext.get(), groupId);
+        if (updated == 0) {
+            throw new IOException("Group not found with ID: " + groupId);
+        }
+    }
+
+    @Override
+    public void saveMenu(String groupId, List<MenuItem> menu) {
+        if (menu == null || menu.isEmpty()) {
+            return;
+        }
+        String region = RegionContext.get();
+        List<Object[]> args = new ArrayList<>();
+        for (MenuItem item : menu) {
+            args.add(new Object[] { region, groupId, item.getName(), item.getPrice() });
+        }
+        jdbc().batchUpdate("INSERT INTO menu_items (region, group_id, name, price) VALUES (?, ?, ?, ?)", args);
+    }
+
+    @Override
+    public List<MenuItem> findMenu(String groupId) {
+        return jdbc().query("SELECT name, price FROM menu_items WHERE region = ? AND group_id = ? ORDER BY seq",
+                (rs, rowNum) -> new MenuItem(rs.getString("name"), rs.getInt("price")),
+                RegionContext.get(), groupId);
+    }
+
+    @Override
+    public List<Order> findOrdersByGroup(String groupId) {
+        // Same order as the sheet: live orders sorted by item name, then history
+        List<Order> live = jdbc().query(
+                "SELECT * FROM orders WHERE region = ? AND group_id = ? AND archived = FALSE ORDER BY seq",
+                ORDER_MAPPER, RegionContext.get(), groupId);
+        Collator collator = Collator.getInstance(Locale.TAIWAN);
+        live.sort(Comparator.comparing(o -> o.getItemName() == null ? "" : o.getItemName(), collator));
+
+        List<Order> orders = new ArrayList<>(live);
+        orders.addAll(jdbc().query(
+                "SELECT * FROM orders WHERE region = ? AND group_id = ? AND archived = TRUE ORDER BY seq",
+                ORDER_MAPPER, RegionContext.get(), groupId));
+        return orders;
+    }
+
+    @Override
+    public List<Boolean> applyOrderMutations(List<OrderMutation> mutations) {
+        String region = RegionContext.get();
+        JdbcTemplate jdbc = jdbc();
+        return transactionTemplate.execute(status -> {
+            List<Boolean> results = new ArrayList<>();
+            for (OrderMutation mutation : mutations) {
+                switch (mutation.type()) {
+                    case ADD -> {
+                        insertOrder(jdbc, region, mutation.order());
+                        results.add(true);
+                    }
+                    // Like the sheet, only live orders can be deleted
+                    case DELETE -> results.add(jdbc.update(
+                            "DELETE FROM orders WHERE region = ? AND group_id = ? AND id = ? AND archived = FALSE",
+                            region, mutation.groupId(), mutation.orderId()) > 0);
+                    case PAID -> results.add(jdbc.update(
+                            "UPDATE orders SET paid = ? WHERE region = ? AND group_id = ? AND id = ?",
+                            mutation.paid(), region, mutation.groupId(), mutation.orderId()) > 0);
+                }
+            }
+            return results;
+        });
+    }
+
+    private void insertOrder(JdbcTemplate jdbc, String region, Order order) {
+        jdbc.update("INSERT INTO orders (region, id, group_id, user_name, item_name, base_price, rice_level,"
+                + " quantity, total_price, note, created_at, paid) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                region, order.getId(), order.getGroupId(), order.getUserName(), order.getItemName(),
+                order.getBasePrice(), order.getRiceLevel(), order.getQuantity(), order.getTotalPrice(),
+                order.getNote() == null ? "" : order.getNote(), order.getCreatedAt(),
+                Boolean.TRUE.equals(order.getPaid()));
+    }
+
+    @Override
+    public void archiveOrders() {
+        int archived = jdbc().update("UPDATE orders SET archived = TRUE WHERE region = ? AND archived = FALSE",
+                RegionContext.get());
+        log.info("Archived {} real orders to history", archived);
+    }
+
+    @Override
+    public List<Restaurant> findAllRestaurants() {
+        List<Restaurant> results = new ArrayList<>();
+        jdbc().query("SELECT * FROM restaurants WHERE region = ? ORDER BY seq", rs -> {
+            try {
+                List<MenuItem> menu = objectMapper.readValue(rs.getString("menu_json"),
+                        new TypeReference<List<MenuItem>>() {
+                        });
+                results.add(new Restaurant(rs.getString("id"), rs.getString("name"), menu,
+                        rs.getString("menu_image_url"), rs.getString("note"), rs.getString("phone")));
+            } catch (IOException e) {
+                log.warn("Skipping invalid restaurant row {}: {}", rs.getString("id"), e.getMessage());
+            }
+        }, RegionContext.get());
+        return results;
+    }
+
+    @Override
+    public void saveRestaurant(Restaurant restaurant) throws IOException {
+        if (restaurant.getId() == null) {
+            restaurant.setId(UUID.randomUUID().toString());
+        }
+        String menuJson = objectMapper.writeValueAsString(restaurant.getMenu());
+        String region = RegionContext.get();
+        int updated = jdbc().update("UPDATE restaurants SET name = ?, menu_json = ?, menu_image_url = ?, note = ?,"
+                + " phone = ? WHERE region = ? AND id = ?",
+                restaurant.getName(), menuJson, restaurant.getMenuImageUrl(), restaurant.getNote(),
+                restaurant.getPhone(), region, restaurant.getId());
+        if (updated == 0) {
+            jdbc().update("INSERT INTO restaurants (region, id, name, menu_json, menu_image_url, note, phone)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    region, restaurant.getId(), restaurant.getName(), menuJson, restaurant.getMenuImageUrl(),
+                    restaurant.getNote(), restaurant.getPhone());
+        }
+    }
+
+    @Override
+    public RetentionResult deleteDataBefore(ZonedDateTime cutoff) {
+        // created_at is always written as yyyy-MM-dd HH:mm:ss (Asia/Taipei), so it sorts as text
+        String region = RegionContext.get();
+        String cutoffText = cutoff.withZoneSameInstant(java.time.ZoneId.of("Asia/Taipei")).format(CREATED_AT);
+        JdbcTemplate jdbc = jdbc();
+        return transactionTemplate.execute(status -> {
+            jdbc.update("DELETE FROM lunch_groups WHERE region = ? AND created_at < ?", region, cutoffText);
+            jdbc.update("DELETE FROM menu_items m WHERE m.region = ? AND NOT EXISTS"
+                    + " (SELECT 1 FROM lunch_groups g WHERE g.region = m.region AND g.id = m.group_id)", region);
+            jdbc.update("DELETE FROM orders WHERE region = ? AND created_at < ?", region, cutoffText);
+            return new RetentionResult(
+                    count("SELECT COUNT(*) FROM lunch_groups WHERE region = ?", region),
+                    count("SELECT COUNT(*) FROM menu_items WHERE region = ?", region),
+                    count("SELECT COUNT(*) FROM orders WHERE region = ? AND archived = FALSE", region),
+                    count("SELECT COUNT(*) FROM orders WHERE region = ? AND archived = TRUE", region));
+        });
+    }
+
+    private int count(String sql, String region) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, region);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.model.DiningGroup;
+import com.example.lunch.model.MenuItem;
+import com.example.lunch.model.Order;
+import com.example.lunch.model.Restaurant;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Storage SPI used by the services. Every call operates on the region bound to
+ * {@link com.example.lunch.config.RegionContext}.
+ */
+public interface LunchStorage {
+
+    // Groups
+
+    List<DiningGroup> findAllGroups() throws IOException;
+
+    void saveGroup(DiningGroup group) throws IOException;
+
+    void updateGroupDeadline(String groupId, String newDeadline) throws IOException;
+
+    // Menus
+
+    void saveMenu(String groupId, List<MenuItem> menu) throws IOException;
+
+    List<MenuItem> findMenu(String groupId) throws IOException;
+
+    // Orders (live + history)
+
+    List<Order> findOrdersByGroup(String groupId) throws IOException;
+
+    /**
+     * Menu and orders of a group for the group page. Backends that can read both in one
+     * round trip override this.
+     */
+    default GroupContents findGroupContents(String groupId) throws IOException {
+        return new GroupContents(findMenu(groupId), findOrdersByGroup(groupId));
+    }
+
+    /**
+     * Applies the mutations in order as one write cycle. Returns, per mutation, whether
+     * it matched (ADD always does; DELETE / PAID only when the order exists).
+     */
+    List<Boolean> applyOrderMutations(List<OrderMutation> mutations) throws IOException;
+
+    default void addOrder(Order order) throws IOException {
+        applyOrderMutations(List.of(OrderMutation.add(order)));
+    }
+
+    default boolean deleteOrder(String groupId, String orderId) throws IOException {
+        return applyOrderMutations(List.of(OrderMutation.delete(groupId, orderId))).get(0);
+    }
+
+    default boolean updatePaymentStatus(String groupId, String orderId, boolean paid) throws IOException {
+        return applyOrderMutations(List.of(OrderMutation.paid(groupId, orderId, paid))).get(0);
+    }
+
+    /**
+     * Moves every live order to history. Called before a new group opens.
+     */
+    void archiveOrders() throws IOException;
+
+    // Restaurants
+
+    List<Restaurant> findAllRestaurants();
+
+    void saveRestaurant(Restaurant restaurant) throws IOException;
+
+    // Retention
+
+    /**
+     * Drops groups, menus and orders created before the cutoff.
+     */
+    RetentionResult deleteDataBefore(ZonedDateTime cutoff) throws IOException;
+
+    record RetentionResult(int groups, int menus, int orders, int history) {
+    }
+
+    record GroupContents(List<MenuItem> menu, List<Order> orders) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.model.MenuItem;
+
+import java.util.List;
+
+/**
+ * Column layout of the Menus tab (A:C): one row per menu item, keyed by group.
+ */
+final class MenuRows {
+
+    static final int GROUP_ID = 0;
+    static final int NAME = 1;
+    static final int PRICE = 2;
+
+    static final List<Object> HEADER = List.of("GroupID", "ItemName", "Price");
+
+    private MenuRows() {
+    }
+
+    static String groupId(List<Object> row) {
+        return SheetCells.text(row, GROUP_ID);
+    }
+
+    static boolean isItem(List<Object> row) {
+        return row.size() > PRICE;
+    }
+
+    static MenuItem decode(List<Object> row) {
+        return new MenuItem(SheetCells.text(row, NAME), SheetCells.integer(row, PRICE, 0));
+    }
+
+    static List<Object> encode(String groupId, MenuItem item) {
+        return List.of(groupId, item.getName(), item.getPrice());
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.config.RegionContext;
+import com.example.lunch.model.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only, fsync'd journal of new orders for Sheets-backed regions. An order is
+ * acknowledged once its line is on disk; {@link #flush(String)} later replays pending
+ * entries into Sheets and advances the checkpoint. Unflushed entries survive restarts.
+ *
+ * File layout per region: orders-&lt;region&gt;.log (one JSON entry per line) and
+ * orders-&lt;region&gt;.checkpoint (last seq written to Sheets).
+ */
+@Slf4j
+@Component
+public class OrderJournal {
+
+    private static final String[] REGIONS = { "taichung", "taipei" };
+
+    @Value("${storage.order-journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${storage.order-journal.path:data/journal}")
+    private String journalPath;
+
+    private final SheetsLunchStorage sheetsStorage;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, RegionJournal> journals = new ConcurrentHashMap<>();
+
+    public OrderJournal(SheetsLunchStorage sheetsStorage) {
+        this.sheetsStorage = sheetsStorage;
+    }
+
+    record Entry(long seq, Order order) {
+    }
+
+    private static class RegionJournal {
+        private final Path logPath;
+        private final Path checkpointPath;
+        private final ConcurrentSkipListMap<Long, Order> pending = new ConcurrentSkipListMap<>();
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private FileChannel channel;
+        private long lastSeq;
+        private long flushedSeq;
+
+        RegionJournal(Path dir, String region) {
+            this.logPath = dir.resolve("orders-" + region + ".log");
+            this.checkpointPath = dir.resolve("orders-" + region + ".checkpoint");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path dir = Paths.get(journalPath);
+        Files.createDirectories(dir);
+        for (String region : REGIONS) {
+            RegionJournal journal = new RegionJournal(dir, region);
+            journal.flushedSeq = readCheckpoint(journal.checkpointPath);
+            journal.lastSeq = journal.flushedSeq;
+            if (Files.exists(journal.logPath)) {
+                readLog(journal);
+            }
+            journal.channel = FileChannel.open(journal.logPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            journals.put(region, journal);
+            if (!journal.pending.isEmpty()) {
+                log.info("[JOURNAL] Recovered {} unflushed orders for region={}", journal.pending.size(), region);
+            }
+        }
+    }
+
+    /**
+     * Loads the entries of the log and cuts off a torn tail, so the next append starts on a
+     * fresh line. Only the last line can be torn by a crash mid-append (and was never
+     * acknowledged); an unreadable line before it means the file is damaged, and starting
+     * anyway would silently drop acknowledged orders.
+     */
+    private void readLog(RegionJournal journal) throws IOException {
+        byte[] data = Files.readAllBytes(journal.logPath);
+        int good = 0;
+        while (good < data.length) {
+            int end = indexOf(data, (byte) '\n', good);
+            if (end < 0) {
+                break; // no newline: the append was cut short
+            }
+            String line = new String(data, good, end - good, StandardCharsets.UTF_8);
+            if (!line.isBlank()) {
+                Entry entry;
+                try {
+                    entry = objectMapper.readValue(line, Entry.class);
+                } catch (IOException e) {
+                    if (end + 1 < data.length) {
+                        throw new IOException("Corrupt entry at offset " + good + " of " + journal.logPath
+                                + "; fix or move the file before starting", e);
+                    }
+                    break;
+                }
+                journal.lastSeq = Math.max(journal.lastSeq, entry.seq());
+                if (entry.seq() > journal.flushedSeq) {
+                    journal.pending.put(entry.seq(), entry.order());
+                }
+            }
+            good = end + 1;
+        }
+        if (good < data.length) {
+            log.warn("[JOURNAL] Truncating torn tail of {} ({} bytes at offset {})", journal.logPath,
+                    data.length - good, good);
+            try (FileChannel channel = FileChannel.open(journal.logPath, StandardOpenOption.WRITE)) {
+                channel.truncate(good);
+                channel.force(true);
+            }
+        }
+    }
+
+    private static int indexOf(byte[] data, byte b, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Last seq written to Sheets. An unreadable checkpoint falls back to 0: every entry left in
+     * the log is replayed, and replays skip orders already in the sheet.
+     */
+    private long readCheckpoint(Path checkpointPath) throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return 0;
+        }
+        String value = Files.readString(checkpointPath).trim();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            log.warn("[JOURNAL] Unreadable checkpoint {} ('{}'), replaying the whole log", checkpointPath, value);
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (RegionJournal journal : journals.values()) {
+            try {
+                journal.channel.close();
+            } catch (IOException e) {
+                log.warn("[JOURNAL] Failed to close {}: {}", journal.logPath, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Durably records new orders for the current region. Returns once the entries are fsync'd.
+     */
+    public void append(List<Order> orders) throws IOException {
+        RegionJournal journal = journal(RegionContext.get());
+        synchronized (journal) {
+            StringBuilder lines = new StringBuilder();
+            long seq = journal.lastSeq;
+            for (Order order : orders) {
+                lines.append(objectMapper.writeValueAsString(new Entry(++seq, order))).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            long size = journal.channel.size();
+            try {
+                while (buffer.hasRemaining()) {
+                    journal.channel.write(buffer);
+                }
+                journal.channel.force(true);
+            } catch (IOException e) {
+                // Cut the partial lines, or the next entry would be glued onto them
+                try {
+                    journal.channel.truncate(size);
+                    journal.channel.force(true);
+                } catch (IOException truncateFailed) {
+                    e.addSuppressed(truncateFailed);
+                    // Refuse further appends; recovery cuts the tail on the next start
+                    journal.channel.close();
+                    log.error("[JOURNAL] Could not truncate {} after a failed append, journal closed",
+                            journal.logPath);
+                }
+                throw e;
+            }
+            seq = journal.lastSeq;
+            for (Order order : orders) {
+                journal.pending.put(++seq, order);
+            }
+            journal.lastSeq = seq;
+        }
+    }
+
+    /**
+     * Orders of the group that are durable locally but not yet written to Sheets.
+     */
+    public List<Order> pendingOrders(String groupId) {
+        List<Order> orders = new ArrayList<>();
+        if (!enabled) {
+            return orders;
+        }
+        for (Order order : journal(RegionContext.get()).pending.values()) {
+            if (groupId.equals(order.getGroupId())) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    public boolean hasPending() {
+        return enabled && !journal(RegionContext.get()).pending.isEmpty();
+    }
+
+    public void flushAll() {
+        if (!enabled) {
+            return;
+        }
+        for (String region : REGIONS) {
+            RegionContext.set(region);
+            try {
+                flush(region);
+            } catch (Exception e) {
+                log.warn("[JOURNAL] Flush failed for region={}, will retry: {}", region, e.getMessage());
+            } finally {
+                RegionContext.clear();
+            }
+        }
+    }
+
+    /**
+     * Replays pending entries of the region into Sheets in journal order, as one batch.
+     * On failure nothing is checkpointed and the batch is retried. The caller must have
+     * bound the region.
+     */
+    public void flush(String region) throws IOException {
+        RegionJournal journal = journal(region);
+        journal.flushLock.lock();
+        try {
+            // Everything pending goes to Sheets in one write cycle
+            TreeMap<Long, Order> batch = new TreeMap<>(journal.pending);
+            if (!batch.isEmpty()) {
+                List<OrderMutation> mutations = new ArrayList<>();
+                for (Order order : batch.values()) {
+                    mutations.add(OrderMutation.add(order));
+                }
+                sheetsStorage.applyOrderMutations(mutations);
+                long lastSeq = batch.lastKey();
+                writeCheckpoint(journal, lastSeq);
+                journal.pending.headMap(lastSeq, true).clear();
+                log.info("[JOURNAL] Flushed {} orders to Sheets for region={}", batch.size(), region);
+            }
+            compact(journal);
+        } finally {
+            journal.flushLock.unlock();
+        }
+    }
+
+    private void writeCheckpoint(RegionJournal journal, long seq) throws IOException {
+        Path tmp = journal.checkpointPath.resolveSibling(journal.checkpointPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(Long.toString(seq).getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // On disk before the rename, so a crash never leaves an empty checkpoint in place
+            channel.force(true);
+        }
+        Files.move(tmp, journal.checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal.flushedSeq = seq;
+    }
+
+    private void compact(RegionJournal journal) throws IOException {
+        synchronized (journal) {
+            // Everything up to lastSeq is in Sheets and recorded in the checkpoint
+            if (journal.pending.isEmpty() && journal.channel.size() > 0) {
+                journal.channel.truncate(0);
+                journal.channel.force(true);
+            }
+        }
+    }
+
+    private RegionJournal journal(String region) {
+        RegionJournal journal = journals.get(region);
+        if (journal == null) {
+            throw new IllegalStateException("Order journal is not enabled for region " + region);
+        }
+        return journal;
+    }
+}
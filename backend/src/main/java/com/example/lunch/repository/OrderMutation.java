@@ -0,0 +1,26 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.model.Order;
+
+/**
+ * One pending change to the live orders of a region, applied in batches by
+ * {@link LunchStorage#applyOrderMutations(java.util.List)}.
+ */
+public record OrderMutation(Type type, String groupId, String orderId, Order order, boolean paid) {
+
+    public enum Type {
+        ADD, DELETE, PAID
+    }
+
+    public static OrderMutation add(Order order) {
+        return new OrderMutation(Type.ADD, order.getGroupId(), order.getId(), order, false);
+    }
+
+    public static OrderMutation delete(String groupId, String orderId) {
+        return new OrderMutation(Type.DELETE, groupId, orderId, null, false);
+    }
+
+    public static OrderMutation paid(String groupId, String orderId, boolean paid) {
+        return new OrderMutation(Type.PAID, groupId, orderId, null, paid);
+    }
+}
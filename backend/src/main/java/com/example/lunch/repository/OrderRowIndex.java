@@ -0,0 +1,134 @@
+package com.example.lunch.repository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * orderId → sheet row for the Orders tab and the history partitions of one region, plus
+ * what incremental writes need about the Orders tab (TOTAL row position, running count/sum).
+ * Built from one read of Orders; a history tab is read in when an order in it is first
+ * looked up. Kept current by every write that moves rows, so locating an order needs no
+ * read. Only touched under the region's orders lock.
+ */
+class OrderRowIndex {
+
+    static final String ORDERS_SHEET = "Orders";
+
+    record RowRef(String sheet, int rowNumber, String groupId, int quantity, int totalPrice) {
+    }
+
+    private final Map<String, RowRef> live = new LinkedHashMap<>();
+    private final Map<String, RowRef> history = new HashMap<>();
+    private final Set<String> loadedSheets = new HashSet<>();
+
+    int totalRowNumber;
+    int count;
+    int sum;
+    String groupId;
+    boolean mixedGroups;
+
+    static OrderRowIndex of(List<List<Object>> liveRows) {
+        OrderRowIndex index = new OrderRowIndex();
+        index.resetLive(liveRows);
+        return index;
+    }
+
+    /**
+     * Re-derives the live part from the rows of Orders!A2:K as they now are on the sheet.
+     */
+    void resetLive(List<List<Object>> rows) {
+        live.clear();
+        totalRowNumber = rows.size() + 2;
+        count = 0;
+        sum = 0;
+        groupId = null;
+        mixedGroups = false;
+        for (int i = 0; i < rows.size(); i++) {
+            List<Object> row = rows.get(i);
+            if (OrderRows.isTotal(row)) {
+                totalRowNumber = i + 2;
+                continue;
+            }
+            if (!OrderRows.isOrder(row)) {
+                continue;
+            }
+            RowRef ref = toRef(ORDERS_SHEET, i + 2, row);
+            if (groupId != null && !groupId.equals(ref.groupId())) {
+                mixedGroups = true;
+            }
+            groupId = ref.groupId();
+            live.put(OrderRows.id(row), ref);
+            count += ref.quantity();
+            sum += ref.totalPrice();
+        }
+    }
+
+    /**
+     * Records rows appended to a history tab, the first one landing on firstRowNumber.
+     */
+    void addHistory(String sheet, List<List<Object>> rows, int firstRowNumber) {
+        for (int i = 0; i < rows.size(); i++) {
+            List<Object> row = rows.get(i);
+            if (OrderRows.isOrder(row)) {
+                history.put(OrderRows.id(row), toRef(sheet, firstRowNumber + i, row));
+            }
+        }
+    }
+
+    /**
+     * Records the full contents of a history tab read from its row 2 on.
+     */
+    void loadHistory(String sheet, List<List<Object>> rows) {
+        addHistory(sheet, rows, 2);
+        loadedSheets.add(sheet);
+    }
+
+    boolean isLoaded(String sheet) {
+        return loadedSheets.contains(sheet);
+    }
+
+    /**
+     * Records a row written over the TOTAL row; the TOTAL row moves one down.
+     */
+    void addLive(List<Object> row) {
+        RowRef ref = toRef(ORDERS_SHEET, totalRowNumber, row);
+        live.put(OrderRows.id(row), ref);
+        totalRowNumber++;
+        count += ref.quantity();
+        sum += ref.totalPrice();
+        groupId = ref.groupId();
+    }
+
+    RowRef removeLive(String orderId) {
+        RowRef ref = live.remove(orderId);
+        if (ref != null) {
+            count -= ref.quantity();
+            sum -= ref.totalPrice();
+        }
+        return ref;
+    }
+
+    boolean isLive(String orderId) {
+        return live.containsKey(orderId);
+    }
+
+    /**
+     * Live row first, then history. The stored group must match, so a stale or reused id is
+     * never written blindly.
+     */
+    RowRef find(String groupId, String orderId) {
+        RowRef ref = live.get(orderId);
+        if (ref == null) {
+            ref = history.get(orderId);
+        }
+        return ref != null && ref.groupId().equals(groupId) ? ref : null;
+    }
+
+    private static RowRef toRef(String sheet, int rowNumber, List<Object> row) {
+        return new RowRef(sheet, rowNumber, OrderRows.groupId(row), OrderRows.quantity(row), OrderRows.totalPrice(row));
+    }
+}
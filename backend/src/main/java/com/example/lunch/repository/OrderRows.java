@@ -0,0 +1,137 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.model.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Column layout of the Orders tab and its history partitions (A:K), and the codec between
+ * those rows and {@link Order}. The live tab ends with a TOTAL row; incremental deletes leave
+ * blank rows behind.
+ */
+final class OrderRows {
+
+    static final int ID = 0;
+    static final int GROUP_ID = 1;
+    static final int USER_NAME = 2;
+    static final int ITEM_NAME = 3;
+    static final int BASE_PRICE = 4;
+    static final int RICE_LEVEL = 5;
+    static final int QUANTITY = 6;
+    static final int TOTAL_PRICE = 7;
+    static final int NOTE = 8;
+    static final int CREATED_AT = 9;
+    static final int PAID = 10;
+    static final int WIDTH = 11;
+
+    static final String TOTAL_ID = "TOTAL";
+    static final List<Object> HEADER = List.of("ID", "GroupID", "UserName", "ItemName", "BasePrice",
+            "RiceLevel", "Quantity", "TotalPrice", "Note", "CreatedAt", "Paid");
+
+    private OrderRows() {
+    }
+
+    static String id(List<Object> row) {
+        return SheetCells.text(row, ID);
+    }
+
+    static String groupId(List<Object> row) {
+        return SheetCells.text(row, GROUP_ID);
+    }
+
+    static String itemName(List<Object> row) {
+        return SheetCells.text(row, ITEM_NAME);
+    }
+
+    static String createdAt(List<Object> row) {
+        return SheetCells.text(row, CREATED_AT);
+    }
+
+    static int quantity(List<Object> row) {
+        return SheetCells.integer(row, QUANTITY, 1);
+    }
+
+    static int totalPrice(List<Object> row) {
+        return SheetCells.integer(row, TOTAL_PRICE, 0);
+    }
+
+    static boolean isTotal(List<Object> row) {
+        return TOTAL_ID.equals(id(row));
+    }
+
+    /**
+     * An order row, as opposed to the TOTAL row, a blanked row or a stray cell.
+     */
+    static boolean isOrder(List<Object> row) {
+        return row.size() > GROUP_ID && !id(row).isEmpty() && !isTotal(row);
+    }
+
+    /**
+     * A row with no content, as left by an incremental delete (the API returns it empty).
+     */
+    static boolean isBlank(List<Object> row) {
+        for (int i = 0; i < row.size(); i++) {
+            if (!SheetCells.text(row, i).isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Order decode(List<Object> row) {
+        return Order.builder()
+                .id(id(row))
+                .groupId(groupId(row))
+                .userName(SheetCells.text(row, USER_NAME))
+                .itemName(itemName(row))
+                .basePrice(SheetCells.integer(row, BASE_PRICE, 0))
+                .riceLevel(SheetCells.text(row, RICE_LEVEL))
+                .quantity(SheetCells.integer(row, QUANTITY, 0))
+                .totalPrice(totalPrice(row))
+                .note(SheetCells.text(row, NOTE))
+                .createdAt(createdAt(row))
+                .paid(SheetCells.bool(row, PAID))
+                .build();
+    }
+
+    static List<Object> encode(Order order) {
+        List<Object> row = new ArrayList<>(WIDTH);
+        row.add(order.getId());
+        row.add(order.getGroupId());
+        row.add(order.getUserName());
+        row.add(order.getItemName());
+        row.add(order.getBasePrice());
+        row.add(order.getRiceLevel());
+        row.add(order.getQuantity());
+        row.add(order.getTotalPrice());
+        row.add(order.getNote() == null ? "" : order.getNote());
+        row.add(order.getCreatedAt());
+        row.add(Boolean.TRUE.equals(order.getPaid()));
+        return row;
+    }
+
+    static List<Object> totalRow(int totalCount, int totalSum) {
+        List<Object> row = new ArrayList<>(Collections.nCopies(WIDTH, ""));
+        row.set(ID, TOTAL_ID);
+        row.set(USER_NAME, "---");
+        row.set(ITEM_NAME, "總計");
+        row.set(QUANTITY, totalCount + " 份");
+        row.set(TOTAL_PRICE, totalSum);
+        return row;
+    }
+
+    static List<Object> blankRow() {
+        return new ArrayList<>(Collections.nCopies(WIDTH, ""));
+    }
+
+    static List<Object> withPaid(List<Object> row, boolean paid) {
+        List<Object> copy = new ArrayList<>(row);
+        while (copy.size() < WIDTH) {
+            copy.add("");
+        }
+        copy.set(PAID, paid);
+        return copy;
+    }
+}
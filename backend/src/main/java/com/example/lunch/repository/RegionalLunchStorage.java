@@ -0,0 +1,181 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.config.RegionContext;
+import com.example.lunch.model.DiningGroup;
+import com.example.lunch.model.MenuItem;
+import com.example.lunch.model.Order;
+import com.example.lunch.model.Restaurant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Routes every {@link LunchStorage} call to the backend configured for the current region
+ * (storage.backend.taichung / storage.backend.taipei = sheets | local).
+ */
+@Slf4j
+@Primary
+@Component
+public class RegionalLunchStorage implements LunchStorage {
+
+    private final SheetsLunchStorage sheetsStorage;
+    private final LocalLunchStorage localStorage;
+    private final OrderJournal orderJournal;
+
+    @Value("${storage.backend.taichung:sheets}")
+    private String taichungBackend;
+
+    @Value("${storage.backend.taipei:sheets}")
+    private String taipeiBackend;
+
+    public RegionalLunchStorage(SheetsLunchStorage sheetsStorage, LocalLunchStorage localStorage,
+            OrderJournal orderJournal) {
+        this.sheetsStorage = sheetsStorage;
+        this.localStorage = localStorage;
+        this.orderJournal = orderJournal;
+    }
+
+    @PostConstruct
+    public void logBackends() {
+        log.info("Storage backends: taichung={}, taipei={}, orderJournal={}", taichungBackend, taipeiBackend,
+                orderJournal.isEnabled());
+    }
+
+    private LunchStorage current() {
+        String backend = "taipei".equals(RegionContext.get()) ? taipeiBackend : taichungBackend;
+        return "local".equalsIgnoreCase(backend) ? localStorage : sheetsStorage;
+    }
+
+    private boolean journaled() {
+        return orderJournal.isEnabled() && current() == sheetsStorage;
+    }
+
+    /**
+     * Writes journaled orders through to Sheets before any operation that rewrites or
+     * looks up existing rows, so it sees them at their final position.
+     */
+    private void flushJournal() throws IOException {
+        if (journaled() && orderJournal.hasPending()) {
+            orderJournal.flush(RegionContext.get());
+        }
+    }
+
+    @Override
+    public List<DiningGroup> findAllGroups() throws IOException {
+        return current().findAllGroups();
+    }
+
+    @Override
+    public void saveGroup(DiningGroup group) throws IOException {
+        current().saveGroup(group);
+    }
+
+    @Override
+    public void updateGroupDeadline(String groupId, String newDeadline) throws IOException {
+        current().updateGroupDeadline(groupId, newDeadline);
+    }
+
+    @Override
+    public void saveMenu(String groupId, List<MenuItem> menu) throws IOException {
+        current().saveMenu(groupId, menu);
+    }
+
+    @Override
+    public List<MenuItem> findMenu(String groupId) throws IOException {
+        return current().findMenu(groupId);
+    }
+
+    @Override
+    public List<Order> findOrdersByGroup(String groupId) throws IOException {
+        return withPendingOrders(groupId, current().findOrdersByGroup(groupId));
+    }
+
+    @Override
+    public GroupContents findGroupContents(String groupId) throws IOException {
+        GroupContents contents = current().findGroupContents(groupId);
+        return new GroupContents(contents.menu(), withPendingOrders(groupId, contents.orders()));
+    }
+
+    private List<Order> withPendingOrders(String groupId, List<Order> orders) {
+        if (!journaled()) {
+            return orders;
+        }
+        List<Order> pending = orderJournal.pendingOrders(groupId);
+        if (pending.isEmpty()) {
+            return orders;
+        }
+        Set<String> savedIds = orders.stream().map(Order::getId).collect(Collectors.toSet());
+        List<Order> merged = new ArrayList<>(orders);
+        for (Order order : pending) {
+            if (!savedIds.contains(order.getId())) {
+                merged.add(order);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public List<Boolean> applyOrderMutations(List<OrderMutation> mutations) throws IOException {
+        if (!journaled()) {
+            return current().applyOrderMutations(mutations);
+        }
+
+        // New orders only need to reach the journal; one fsync covers the whole batch
+        List<Order> added = new ArrayList<>();
+        List<OrderMutation> others = new ArrayList<>();
+        for (OrderMutation mutation : mutations) {
+            if (mutation.type() == OrderMutation.Type.ADD) {
+                added.add(mutation.order());
+            } else {
+                others.add(mutation);
+            }
+        }
+        if (!added.isEmpty()) {
+            orderJournal.append(added);
+        }
+        if (others.isEmpty()) {
+            return Collections.nCopies(mutations.size(), true);
+        }
+
+        flushJournal();
+        Iterator<Boolean> otherResults = current().applyOrderMutations(others).iterator();
+        List<Boolean> results = new ArrayList<>();
+        for (OrderMutation mutation : mutations) {
+            results.add(mutation.type() == OrderMutation.Type.ADD || otherResults.next());
+        }
+        return results;
+    }
+
+    @Override
+    public void archiveOrders() throws IOException {
+        flushJournal();
+        current().archiveOrders();
+    }
+
+    @Override
+    public List<Restaurant> findAllRestaurants() {
+        return current().findAllRestaurants();
+    }
+
+    @Override
+    public void saveRestaurant(Restaurant restaurant) throws IOException {
+        current().saveRestaurant(restaurant);
+    }
+
+    @Override
+    public RetentionResult deleteDataBefore(ZonedDateTime cutoff) throws IOException {
+        flushJournal();
+        return current().deleteDataBefore(cutoff);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.lunch.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Typed access to the cells of a row. Ranges are read with UNFORMATTED_VALUE, so numbers
+ * arrive as BigDecimal and TRUE/FALSE as Boolean; rows the app built itself (mock mode,
+ * benchmarks) still hold Strings and Integers. Missing or malformed cells fall back instead
+ * of throwing, so one bad row never fails a whole read.
+ */
+final class SheetCells {
+
+    private SheetCells() {
+    }
+
+    static boolean has(List<Object> row, int column) {
+        return row.size() > column && row.get(column) != null;
+    }
+
+    // "" when the cell is missing
+    static String text(List<Object> row, int column) {
+        if (!has(row, column)) {
+            return "";
+        }
+        Object cell = row.get(column);
+        if (cell instanceof BigDecimal number) {
+            return number.stripTrailingZeros().toPlainString();
+        }
+        return cell.toString();
+    }
+
+    // null when the row ends before the column
+    static String textOrNull(List<Object> row, int column) {
+        return row.size() > column ? text(row, column) : null;
+    }
+
+    static int integer(List<Object> row, int column, int fallback) {
+        if (!has(row, column)) {
+            return fallback;
+        }
+        Object cell = row.get(column);
+        if (cell instanceof Number number) {
+            return number.intValue();
+        }
+        return parseInt(cell.toString().trim(), fallback);
+    }
+
+    static boolean bool(List<Object> row, int column) {
+        if (!has(row, column)) {
+            return false;
+        }
+        Object cell = row.get(column);
+        return cell instanceof Boolean bool ? bool : "true".equalsIgnoreCase(cell.toString().trim());
+    }
+
+    /**
+     * Phone numbers typed into a sheet lose their leading 0 (0970093839 is stored as the
+     * number 970093839); a 9-digit number gets it back.
+     */
+    static String phone(List<Object> row, int column) {
+        if (row.size() <= column) {
+            return null;
+        }
+        String phone = text(row, column).trim();
+        // 如果是 9 碼數字 (例如 970093839)，補上開頭的 0
+        if (phone.matches("\\d{9}")) {
+            return "0" + phone;
+        }
+        return phone;
+    }
+
+    private static int parseInt(String text, int fallback) {
+        int start = text.startsWith("-") ? 1 : 0;
+        if (text.length() == start || text.length() - start > 9) {
+            return fallback;
+        }
+        for (int i = start; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return fallback;
+            }
+        }
+        return Integer.parseInt(text);
+    }
+}
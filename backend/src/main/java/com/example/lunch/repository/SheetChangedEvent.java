@@ -0,0 +1,9 @@
+package com.example.lunch.repository;
+
+/**
+ * Published when the mirror refresh finds a tab changed in the spreadsheet itself (not by
+ * this process), so caches derived from that tab can be dropped. Listeners run on the
+ * refresh thread with the region bound.
+ */
+public record SheetChangedEvent(String region, String sheet) {
+}
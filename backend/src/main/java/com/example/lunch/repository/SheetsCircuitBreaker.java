@@ -0,0 +1,173 @@
+package com.example.lunch.repository;
+
+import com.google.api.client.http.HttpResponseException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker and bulkhead around Sheets API calls. After failure-threshold failed calls
+ * in a row the circuit opens and every call fails at once with
+ * {@link SheetsUnavailableException}; after open-ms one trial call is let through and its
+ * outcome closes or re-opens the circuit. At most max-concurrent calls run at a time, so a
+ * slow Sheets backend holds a bounded number of request threads. A call waits for its quota
+ * token before it takes one of those slots, so waiting out the quota never blocks other calls.
+ */
+@Slf4j
+@Component
+public class SheetsCircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    @Value("${sheets.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${sheets.circuit.open-ms:30000}")
+    private long openMs;
+
+    @Value("${sheets.bulkhead.max-concurrent:16}")
+    private int maxConcurrent;
+
+    @Value("${sheets.bulkhead.wait-ms:5000}")
+    private long bulkheadWaitMs;
+
+    private final SheetsQuotaGuard quotaGuard;
+    private Semaphore bulkhead;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialRunning;
+
+    public SheetsCircuitBreaker(SheetsQuotaGuard quotaGuard) {
+        this.quotaGuard = quotaGuard;
+    }
+
+    @PostConstruct
+    public void init() {
+        bulkhead = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Runs a call against the spreadsheet; write selects the write budget of the quota.
+     */
+    public <T> T call(String spreadsheetId, boolean write, SheetsQuotaGuard.SheetsCall<T> call) throws IOException {
+        boolean trial = admit();
+        try {
+            quotaGuard.acquire(spreadsheetId, write);
+            if (!bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS)) {
+                quotaGuard.giveBack(spreadsheetId, write);
+                throw new SheetsUnavailableException("Google Sheets 回應過慢，請稍後再試（同時請求已達上限）");
+            }
+        } catch (InterruptedException e) {
+            quotaGuard.giveBack(spreadsheetId, write);
+            release(trial);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a Sheets request slot");
+        } catch (IOException e) {
+            release(trial);
+            throw e;
+        }
+        try {
+            T result = call.call();
+            onSuccess();
+            return result;
+        } catch (IOException e) {
+            if (isFailure(e)) {
+                onFailure(e);
+            } else if (isLocalRejection(e)) {
+                release(trial);
+            } else {
+                onSuccess();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            release(trial);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openMs;
+    }
+
+    public synchronized Map<String, Object> status() {
+        return Map.of(
+                "state", state.name(),
+                "consecutiveFailures", consecutiveFailures,
+                "runningCalls", maxConcurrent - bulkhead.availablePermits());
+    }
+
+    // Returns whether the call is the half-open trial
+    private synchronized boolean admit() throws SheetsUnavailableException {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMs) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && !trialRunning) {
+            trialRunning = true;
+            return true;
+        }
+        throw new SheetsUnavailableException("Google Sheets 暫時無法使用，請稍後再試");
+    }
+
+    private synchronized void release(boolean trial) {
+        if (trial) {
+            trialRunning = false;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("[CIRCUIT] Sheets call succeeded, closing circuit");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialRunning = false;
+    }
+
+    private synchronized void onFailure(IOException e) {
+        consecutiveFailures++;
+        trialRunning = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("[CIRCUIT] Opening Sheets circuit for {} ms after {} failures, last: {}",
+                        openMs, consecutiveFailures, e.getMessage());
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    // A rejected request (bad range, missing tab, no permission) says nothing about Sheets health
+    private static boolean isFailure(IOException e) {
+        if (isLocalRejection(e)) {
+            return false;
+        }
+        if (e instanceof HttpResponseException response) {
+            int status = response.getStatusCode();
+            return status == 429 || status >= 500;
+        }
+        // No answer at all: refused, reset, timed out
+        return true;
+    }
+
+    // Never reached Sheets: our own quota, bulkhead or circuit said no, or the caller was interrupted
+    private static boolean isLocalRejection(IOException e) {
+        return e instanceof SheetsUnavailableException
+                || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException));
+    }
+}
@@ -0,0 +1,600 @@
+package com.example.lunch.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Local HTTP stand-in for the Sheets API v4, for running the real Sheets client offline
+ * (benchmarks, load tests, manual testing without credentials).
+ *
+ * Implements values get / batchGet / update / append / clear / batchUpdate plus the
+ * spreadsheet metadata get and addSheet / deleteSheet, on one cell grid per tab with A1 range
+ * semantics: trailing empty rows and cells are not returned, USER_ENTERED input turns numbers
+ * and TRUE/FALSE into typed cells (so "0912..." comes back as 912...), FORMATTED_VALUE
+ * renders them back as text. Formulas are stored as text, not evaluated.
+ *
+ * Spreadsheets are created on first use with the configured tabs and header rows. Latency,
+ * random 429/503 answers and a per-minute quota can be injected with {@link #setFaults}.
+ */
+@Slf4j
+public class SheetsEmulator {
+
+    /**
+     * Injected faults: a fixed latency plus up to latencyJitterMs on every request, the share
+     * of requests answered 429 or 503, and a per-spreadsheet requests-per-minute quota
+     * (0 = unlimited) past which requests get 429.
+     */
+    public record Faults(long latencyMs, long latencyJitterMs, double throttleRate, double errorRate,
+            int quotaPerMinute) {
+
+        public static final Faults NONE = new Faults(0, 0, 0, 0, 0);
+    }
+
+    private static final Pattern CELL = Pattern.compile("([A-Za-z]*)(\\d*)");
+    private static final Pattern PLAIN_TITLE = Pattern.compile("[A-Za-z0-9_]+");
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, List<Object>> defaultSheets;
+    private final Map<String, Spreadsheet> spreadsheets = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSheetId = new AtomicInteger(1);
+    private final AtomicLong requests = new AtomicLong();
+    private volatile Faults faults = Faults.NONE;
+
+    private static class Grid {
+        final int sheetId;
+        final List<List<Object>> rows = new ArrayList<>();
+
+        Grid(int sheetId) {
+            this.sheetId = sheetId;
+        }
+    }
+
+    private static class Spreadsheet {
+        final Map<String, Grid> sheets = new LinkedHashMap<>();
+        long quotaMinute;
+        int quotaUsed;
+    }
+
+    private record A1(String sheet, int startRow, int startCol, int endRow, int endCol) {
+    }
+
+    private static class ApiException extends RuntimeException {
+        final int code;
+        final String status;
+
+        ApiException(int code, String status, String message) {
+            super(message);
+            this.code = code;
+            this.status = status;
+        }
+    }
+
+    /**
+     * @param port          0 for any free port
+     * @param defaultSheets tab title → header row (may be empty), created in every new
+     *                      spreadsheet
+     */
+    public SheetsEmulator(int port, Map<String, List<Object>> defaultSheets) throws IOException {
+        this.defaultSheets = new LinkedHashMap<>(defaultSheets);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sheets-emulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v4/spreadsheets/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        log.info("[EMULATOR] Sheets emulator listening on {}", rootUrl());
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Root URL for Sheets.Builder#setRootUrl.
+     */
+    public String rootUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    public void setFaults(Faults faults) {
+        this.faults = faults;
+    }
+
+    public Faults getFaults() {
+        return faults;
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Current cells of a tab as stored (typed), for checks from tests and load drivers.
+     */
+    public List<List<Object>> rows(String spreadsheetId, String sheet) {
+        Spreadsheet spreadsheet = spreadsheet(spreadsheetId);
+        synchronized (spreadsheet) {
+            Grid grid = spreadsheet.sheets.get(sheet);
+            List<List<Object>> copy = new ArrayList<>();
+            if (grid != null) {
+                grid.rows.forEach(row -> copy.add(new ArrayList<>(row)));
+            }
+            return copy;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            String path = exchange.getRequestURI().getRawPath().substring("/v4/spreadsheets/".length());
+            // {id}, {id}:batchUpdate, {id}/values:batchGet, {id}/values/{range}[:append|:clear]
+            String rawId = path.split("[/:]", 2)[0];
+            String id = decode(rawId);
+            String rest = path.substring(rawId.length());
+            Spreadsheet spreadsheet = spreadsheet(id);
+            injectFaults(spreadsheet);
+            Map<String, List<String>> query = query(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            Object response;
+            synchronized (spreadsheet) {
+                response = route(id, spreadsheet, method, rest, query, exchange);
+            }
+            send(exchange, 200, response);
+        } catch (ApiException e) {
+            send(exchange, e.code, Map.of("error", Map.of("code", e.code, "message", e.getMessage(), "status", e.status)));
+        } catch (Exception e) {
+            log.warn("[EMULATOR] {} {} failed: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.toString());
+            send(exchange, 500, Map.of("error", Map.of("code", 500, "message", String.valueOf(e.getMessage()),
+                    "status", "INTERNAL")));
+        }
+    }
+
+    private Object route(String id, Spreadsheet spreadsheet, String method, String rest,
+            Map<String, List<String>> query, HttpExchange exchange) throws IOException {
+        boolean formatted = !"UNFORMATTED_VALUE".equals(first(query, "valueRenderOption"));
+        boolean userEntered = "USER_ENTERED".equals(first(query, "valueInputOption"));
+        if (rest.isEmpty() && method.equals("GET")) {
+            List<Object> sheets = new ArrayList<>();
+            spreadsheet.sheets.forEach((title, grid) -> sheets.add(
+                    Map.of("properties", Map.of("sheetId", grid.sheetId, "title", title))));
+            return Map.of("spreadsheetId", id, "sheets", sheets);
+        }
+        if (rest.equals(":batchUpdate") && method.equals("POST")) {
+            return batchUpdateSpreadsheet(id, spreadsheet, body(exchange));
+        }
+        if (rest.equals("/values:batchGet") && method.equals("GET")) {
+            List<Object> valueRanges = new ArrayList<>();
+            for (String range : query.getOrDefault("ranges", List.of())) {
+                valueRanges.add(read(spreadsheet, range, formatted));
+            }
+            return Map.of("spreadsheetId", id, "valueRanges", valueRanges);
+        }
+        if (rest.equals("/values:batchUpdate") && method.equals("POST")) {
+            JsonNode body = body(exchange);
+            boolean batchUserEntered = "USER_ENTERED".equals(body.path("valueInputOption").asText());
+            List<Object> responses = new ArrayList<>();
+            int cells = 0;
+            for (JsonNode data : body.path("data")) {
+                Map<String, Object> updated = write(spreadsheet, data.path("range").asText(),
+                        values(data.path("values")), batchUserEntered);
+                cells += (Integer) updated.get("updatedCells");
+                responses.add(updated);
+            }
+            return Map.of("spreadsheetId", id, "totalUpdatedCells", cells, "responses", responses);
+        }
+        if (rest.startsWith("/values/")) {
+            String range = rest.substring("/values/".length());
+            if (range.endsWith(":append") && method.equals("POST")) {
+                return append(spreadsheet, decode(range.substring(0, range.length() - ":append".length())),
+                        values(body(exchange).path("values")), userEntered);
+            }
+            if (range.endsWith(":clear") && method.equals("POST")) {
+                String a1 = decode(range.substring(0, range.length() - ":clear".length()));
+                return Map.of("spreadsheetId", id, "clearedRange", clear(spreadsheet, a1));
+            }
+            if (method.equals("GET")) {
+                return read(spreadsheet, decode(range), formatted);
+            }
+            if (method.equals("PUT")) {
+                return write(spreadsheet, decode(range), values(body(exchange).path("values")), userEntered);
+            }
+        }
+        throw new ApiException(404, "NOT_FOUND", "Unsupported request: " + method + " " + rest);
+    }
+
+    private Map<String, Object> read(Spreadsheet spreadsheet, String range, boolean formatted) {
+        A1 a1 = parse(range);
+        Grid grid = grid(spreadsheet, a1.sheet());
+        List<List<Object>> values = new ArrayList<>();
+        int lastRow = Math.min(a1.endRow(), grid.rows.size() - 1);
+        for (int r = a1.startRow(); r <= lastRow; r++) {
+            List<Object> row = grid.rows.get(r);
+            List<Object> out = new ArrayList<>();
+            int lastCol = Math.min(a1.endCol(), row.size() - 1);
+            for (int c = a1.startCol(); c <= lastCol; c++) {
+                Object cell = row.get(c);
+                out.add(cell == null ? "" : formatted ? format(cell) : cell);
+            }
+            trimTrailing(out);
+            values.add(out);
+        }
+        while (!values.isEmpty() && values.get(values.size() - 1).isEmpty()) {
+            values.remove(values.size() - 1);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("range", rangeOf(a1.sheet(), a1.startRow(), a1.startCol(),
+                a1.endRow() == UNBOUNDED ? Math.max(a1.startRow(), grid.rows.size() - 1) : a1.endRow(),
+                a1.endCol() == UNBOUNDED ? a1.startCol() + Math.max(0, widest(values) - 1) : a1.endCol()));
+        result.put("majorDimension", "ROWS");
+        if (!values.isEmpty()) {
+            result.put("values", values);
+        }
+        return result;
+    }
+
+    private Map<String, Object> write(Spreadsheet spreadsheet, String range, List<List<Object>> values,
+            boolean userEntered) {
+        A1 a1 = parse(range);
+        Grid grid = grid(spreadsheet, a1.sheet());
+        int width = 0;
+        for (int i = 0; i < values.size(); i++) {
+            List<Object> row = values.get(i);
+            width = Math.max(width, row.size());
+            for (int j = 0; j < row.size(); j++) {
+                set(grid, a1.startRow() + i, a1.startCol() + j, userEntered ? userEntered(row.get(j)) : raw(row.get(j)));
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("spreadsheetId", "");
+        result.put("updatedRange", rangeOf(a1.sheet(), a1.startRow(), a1.startCol(),
+                a1.startRow() + Math.max(0, values.size() - 1), a1.startCol() + Math.max(0, width - 1)));
+        result.put("updatedRows", values.size());
+        result.put("updatedColumns", width);
+        result.put("updatedCells", values.stream().mapToInt(List::size).sum());
+        return result;
+    }
+
+    // Appends below the last non-empty row of the range's columns, never above its first row
+    private Map<String, Object> append(Spreadsheet spreadsheet, String range, List<List<Object>> values,
+            boolean userEntered) {
+        A1 a1 = parse(range);
+        Grid grid = grid(spreadsheet, a1.sheet());
+        int next = a1.startRow();
+        for (int r = grid.rows.size() - 1; r >= a1.startRow(); r--) {
+            if (!isBlank(grid.rows.get(r), a1.startCol(), a1.endCol())) {
+                next = r + 1;
+                break;
+            }
+        }
+        String target = rangeOf(a1.sheet(), next, a1.startCol(), next, a1.startCol());
+        Map<String, Object> updates = write(spreadsheet, target, values, userEntered);
+        return Map.of("spreadsheetId", "", "updates", updates);
+    }
+
+    private String clear(Spreadsheet spreadsheet, String range) {
+        A1 a1 = parse(range);
+        Grid grid = grid(spreadsheet, a1.sheet());
+        int lastRow = Math.min(a1.endRow(), grid.rows.size() - 1);
+        for (int r = a1.startRow(); r <= lastRow; r++) {
+            List<Object> row = grid.rows.get(r);
+            int lastCol = Math.min(a1.endCol(), row.size() - 1);
+            for (int c = a1.startCol(); c <= lastCol; c++) {
+                row.set(c, null);
+            }
+        }
+        return range;
+    }
+
+    private Object batchUpdateSpreadsheet(String id, Spreadsheet spreadsheet, JsonNode body) {
+        List<Object> replies = new ArrayList<>();
+        for (JsonNode request : body.path("requests")) {
+            if (request.has("addSheet")) {
+                String title = request.path("addSheet").path("properties").path("title").asText();
+                if (spreadsheet.sheets.containsKey(title)) {
+                    throw new ApiException(400, "INVALID_ARGUMENT",
+                            "Invalid requests[0].addSheet: A sheet with the name \"" + title + "\" already exists.");
+                }
+                Grid grid = new Grid(nextSheetId.getAndIncrement());
+                spreadsheet.sheets.put(title, grid);
+                replies.add(Map.of("addSheet", Map.of("properties", Map.of("sheetId", grid.sheetId, "title", title))));
+            } else if (request.has("deleteSheet")) {
+                int sheetId = request.path("deleteSheet").path("sheetId").asInt();
+                if (!spreadsheet.sheets.values().removeIf(grid -> grid.sheetId == sheetId)) {
+                    throw new ApiException(400, "INVALID_ARGUMENT", "No grid with id: " + sheetId);
+                }
+                replies.add(Map.of());
+            } else {
+                throw new ApiException(400, "INVALID_ARGUMENT", "Unsupported request: " + request.fieldNames().next());
+            }
+        }
+        return Map.of("spreadsheetId", id, "replies", replies);
+    }
+
+    private void injectFaults(Spreadsheet spreadsheet) {
+        Faults current = faults;
+        long latency = current.latencyMs()
+                + (current.latencyJitterMs() > 0 ? ThreadLocalRandom.current().nextLong(current.latencyJitterMs() + 1) : 0);
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (current.quotaPerMinute() > 0) {
+            synchronized (spreadsheet) {
+                long minute = System.currentTimeMillis() / 60_000;
+                if (spreadsheet.quotaMinute != minute) {
+                    spreadsheet.quotaMinute = minute;
+                    spreadsheet.quotaUsed = 0;
+                }
+                if (++spreadsheet.quotaUsed > current.quotaPerMinute()) {
+                    throw quotaExceeded();
+                }
+            }
+        }
+        double dice = ThreadLocalRandom.current().nextDouble();
+        if (dice < current.throttleRate()) {
+            throw quotaExceeded();
+        }
+        if (dice < current.throttleRate() + current.errorRate()) {
+            throw new ApiException(503, "UNAVAILABLE", "The service is currently unavailable.");
+        }
+    }
+
+    private static ApiException quotaExceeded() {
+        return new ApiException(429, "RESOURCE_EXHAUSTED",
+                "Quota exceeded for quota metric 'Read requests' and limit 'Read requests per minute per user'");
+    }
+
+    private Spreadsheet spreadsheet(String id) {
+        return spreadsheets.computeIfAbsent(id, key -> {
+            Spreadsheet spreadsheet = new Spreadsheet();
+            defaultSheets.forEach((title, header) -> {
+                Grid grid = new Grid(nextSheetId.getAndIncrement());
+                if (!header.isEmpty()) {
+                    grid.rows.add(new ArrayList<>(header));
+                }
+                spreadsheet.sheets.put(title, grid);
+            });
+            return spreadsheet;
+        });
+    }
+
+    private static Grid grid(Spreadsheet spreadsheet, String sheet) {
+        Grid grid = spreadsheet.sheets.get(sheet);
+        if (grid == null) {
+            throw new ApiException(400, "INVALID_ARGUMENT", "Unable to parse range: " + sheet);
+        }
+        return grid;
+    }
+
+    private static void set(Grid grid, int row, int col, Object value) {
+        while (grid.rows.size() <= row) {
+            grid.rows.add(new ArrayList<>());
+        }
+        List<Object> cells = grid.rows.get(row);
+        while (cells.size() <= col) {
+            cells.add(null);
+        }
+        cells.set(col, value);
+    }
+
+    /**
+     * "'History Orders 2026-10'!A2:K", "History Orders!A:K", "Orders!A5:K5", "Groups"
+     */
+    static A1 parse(String range) {
+        String sheet;
+        String cells;
+        if (range.startsWith("'")) {
+            StringBuilder title = new StringBuilder();
+            int i = 1;
+            while (i < range.length()) {
+                char c = range.charAt(i);
+                if (c == '\'') {
+                    if (i + 1 < range.length() && range.charAt(i + 1) == '\'') {
+                        title.append('\'');
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                title.append(c);
+                i++;
+            }
+            sheet = title.toString();
+            String rest = range.substring(Math.min(range.length(), i + 1));
+            cells = rest.startsWith("!") ? rest.substring(1) : "";
+        } else {
+            int bang = range.lastIndexOf('!');
+            sheet = bang == -1 ? range : range.substring(0, bang);
+            cells = bang == -1 ? "" : range.substring(bang + 1);
+        }
+        if (cells.isEmpty()) {
+            return new A1(sheet, 0, 0, UNBOUNDED, UNBOUNDED);
+        }
+        String[] refs = cells.split(":", 2);
+        int[] start = cell(refs[0], range, 0);
+        int[] end = refs.length == 2 ? cell(refs[1], range, UNBOUNDED) : start;
+        return new A1(sheet, start[0], start[1], end[0], end[1]);
+    }
+
+    // {row, col}, 0-based; a missing part is `open`
+    private static int[] cell(String ref, String range, int open) {
+        Matcher matcher = CELL.matcher(ref);
+        if (!matcher.matches() || ref.isEmpty()) {
+            throw new ApiException(400, "INVALID_ARGUMENT", "Unable to parse range: " + range);
+        }
+        String letters = matcher.group(1).toUpperCase();
+        String digits = matcher.group(2);
+        int col = open;
+        if (!letters.isEmpty()) {
+            col = 0;
+            for (char c : letters.toCharArray()) {
+                col = col * 26 + (c - 'A' + 1);
+            }
+            col--;
+        }
+        int row = digits.isEmpty() ? open : Integer.parseInt(digits) - 1;
+        return new int[] { row, col };
+    }
+
+    private static String rangeOf(String sheet, int startRow, int startCol, int endRow, int endCol) {
+        String title = PLAIN_TITLE.matcher(sheet).matches() ? sheet : "'" + sheet.replace("'", "''") + "'";
+        return title + "!" + column(startCol) + (startRow + 1) + ":" + column(endCol) + (endRow + 1);
+    }
+
+    private static String column(int col) {
+        StringBuilder name = new StringBuilder();
+        for (int n = col + 1; n > 0; n = (n - 1) / 26) {
+            name.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    // USER_ENTERED: what typing the text into the cell would store
+    private static Object userEntered(Object value) {
+        if (!(value instanceof String text)) {
+            return raw(value);
+        }
+        if (text.isEmpty()) {
+            return null;
+        }
+        if (text.startsWith("'")) {
+            return text.substring(1);
+        }
+        if (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false")) {
+            return Boolean.valueOf(text);
+        }
+        if (NUMBER.matcher(text).matches()) {
+            return new BigDecimal(text);
+        }
+        return text;
+    }
+
+    private static Object raw(Object value) {
+        if (value == null || "".equals(value)) {
+            return null;
+        }
+        return value instanceof Number number ? new BigDecimal(number.toString()) : value;
+    }
+
+    private static Object format(Object cell) {
+        if (cell instanceof Boolean bool) {
+            return bool ? "TRUE" : "FALSE";
+        }
+        if (cell instanceof BigDecimal number) {
+            return number.stripTrailingZeros().toPlainString();
+        }
+        return cell.toString();
+    }
+
+    private static boolean isBlank(List<Object> row, int fromCol, int toCol) {
+        for (int c = fromCol; c <= Math.min(toCol, row.size() - 1); c++) {
+            if (row.get(c) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void trimTrailing(List<Object> row) {
+        while (!row.isEmpty() && "".equals(row.get(row.size() - 1))) {
+            row.remove(row.size() - 1);
+        }
+    }
+
+    private static int widest(List<List<Object>> rows) {
+        return rows.stream().mapToInt(List::size).max().orElse(0);
+    }
+
+    private List<List<Object>> values(JsonNode node) {
+        List<List<Object>> rows = new ArrayList<>();
+        for (JsonNode row : node) {
+            List<Object> cells = new ArrayList<>();
+            for (JsonNode cell : row) {
+                cells.add(cell.isNull() ? null
+                        : cell.isBoolean() ? cell.asBoolean()
+                        : cell.isNumber() ? cell.decimalValue()
+                        : cell.asText());
+            }
+            rows.add(cells);
+        }
+        return rows;
+    }
+
+    private JsonNode body(HttpExchange exchange) throws IOException {
+        // the Google client gzips request bodies
+        byte[] bytes = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                ? new GZIPInputStream(exchange.getRequestBody()).readAllBytes()
+                : exchange.getRequestBody().readAllBytes();
+        return bytes.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(bytes);
+    }
+
+    private static Map<String, List<String>> query(String rawQuery) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = decode(eq == -1 ? pair : pair.substring(0, eq));
+            String value = eq == -1 ? "" : decode(pair.substring(eq + 1));
+            params.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+        return params;
+    }
+
+    private static String first(Map<String, List<String>> query, String key) {
+        List<String> values = query.get(key);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static String decode(String text) {
+        return URLDecoder.decode(text.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
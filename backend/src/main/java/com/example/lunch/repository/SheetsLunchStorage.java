@@ -0,0 +1,803 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.config.RegionContext;
+import com.example.lunch.model.DateTimes;
+import com.example.lunch.model.DiningGroup;
+import com.example.lunch.model.MenuItem;
+import com.example.lunch.model.Order;
+import com.example.lunch.model.Restaurant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * {@link LunchStorage} backed by the region's Google Spreadsheet. Row layout of
+ * every tab lives here; {@link GoogleSheetsRepository} only talks to the API.
+ */
+@Slf4j
+@Component
+public class SheetsLunchStorage implements LunchStorage {
+
+    private static final String RANGE_GROUPS = "Groups!A2:I";
+    private static final String RANGE_MENUS = "Menus!A2:C";
+    private static final String RANGE_ORDERS = "Orders!A2:K";
+    private static final String RANGE_HISTORY_ORDERS = "History Orders!A2:K";
+
+    private static final ZoneId TAIPEI_ZONE = DateTimes.TAIPEI;
+
+    private final GoogleSheetsRepository repository;
+    private final Map<String, ReentrantLock> ordersLocks = new ConcurrentHashMap<>();
+    private final Map<String, OrderRowIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, List<MenuItem>>> menuCache = new ConcurrentHashMap<>();
+    private final Map<String, HistoryPartitions> partitionsCache = new ConcurrentHashMap<>();
+
+    @Value("${storage.sheets.incremental-orders:false}")
+    private boolean incrementalOrders;
+
+    public SheetsLunchStorage(GoogleSheetsRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * A tab was edited in the spreadsheet itself: drop what was derived from it so the next
+     * request rebuilds it from the sheet.
+     */
+    @EventListener
+    public void onSheetChanged(SheetChangedEvent event) {
+        String sheet = event.sheet();
+        if (sheet.equals("Menus")) {
+            menuCache.remove(event.region());
+        } else if (sheet.equals(OrderRowIndex.ORDERS_SHEET)) {
+            indexes.remove(event.region());
+        } else if (sheet.equals("Groups")) {
+            partitionsCache.remove(event.region());
+        } else if (sheet.startsWith(HistoryPartitions.LEGACY_SHEET)) {
+            partitionsCache.remove(event.region());
+            indexes.remove(event.region());
+        }
+    }
+
+    @Override
+    public List<DiningGroup> findAllGroups() throws IOException {
+        List<List<Object>> values = repository.readData(RANGE_GROUPS);
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return values.stream()
+                .filter(GroupRows::isGroup)
+                .map(GroupRows::decode)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void saveGroup(DiningGroup group) throws IOException {
+        List<Object> row = GroupRows.encode(group);
+
+        synchronized (partitionsCache) {
+            repository.appendData(RANGE_GROUPS, Collections.singletonList(row));
+            HistoryPartitions partitions = partitionsCache.get(RegionContext.get());
+            YearMonth month = monthOf(group.getCreatedInstant());
+            if (partitions != null && month != null) {
+                partitions.partitionByGroup.put(group.getId(), HistoryPartitions.sheetFor(month));
+            }
+        }
+    }
+
+    @Override
+    public void updateGroupDeadline(String groupId, String newDeadline) throws IOException {
+        repository.updateGroupDeadline(groupId, newDeadline);
+    }
+
+    @Override
+    public void saveMenu(String groupId, List<MenuItem> menu) throws IOException {
+        synchronized (menuCache) {
+            repository.saveMenu(groupId, menu);
+            Map<String, List<MenuItem>> menus = menuCache.get(RegionContext.get());
+            if (menus != null && menu != null && !menu.isEmpty()) {
+                // Rows are appended, so a second save extends the menu just like on the sheet
+                menus.merge(groupId, List.copyOf(menu), (saved, added) -> {
+                    List<MenuItem> merged = new ArrayList<>(saved);
+                    merged.addAll(added);
+                    return List.copyOf(merged);
+                });
+            }
+        }
+    }
+
+    @Override
+    public List<MenuItem> findMenu(String groupId) throws IOException {
+        return new ArrayList<>(menus().getOrDefault(groupId, List.of()));
+    }
+
+    /**
+     * groupId → menu for the current region, loaded from the Menus tab in one pass on first
+     * use. A group's menu only changes through saveMenu and retention, which update it here.
+     */
+    private Map<String, List<MenuItem>> menus() throws IOException {
+        Map<String, List<MenuItem>> menus = menuCache.get(RegionContext.get());
+        if (menus != null) {
+            return menus;
+        }
+        synchronized (menuCache) {
+            menus = menuCache.get(RegionContext.get());
+            if (menus == null) {
+                menus = indexMenus(repository.readRanges(List.of(RANGE_MENUS)).get(0));
+                menuCache.put(RegionContext.get(), menus);
+            }
+            return menus;
+        }
+    }
+
+    private static Map<String, List<MenuItem>> indexMenus(List<List<Object>> rows) {
+        Map<String, List<MenuItem>> grouped = new HashMap<>();
+        for (List<Object> row : rows) {
+            if (MenuRows.isItem(row)) {
+                grouped.computeIfAbsent(MenuRows.groupId(row), id -> new ArrayList<>())
+                        .add(MenuRows.decode(row));
+            }
+        }
+        Map<String, List<MenuItem>> menus = new ConcurrentHashMap<>();
+        grouped.forEach((groupId, items) -> menus.put(groupId, List.copyOf(items)));
+        return menus;
+    }
+
+    @Override
+    public List<Order> findOrdersByGroup(String groupId) throws IOException {
+        List<String> ranges = new ArrayList<>(List.of(RANGE_ORDERS));
+        ranges.addAll(historyRanges(groupId));
+        List<List<List<Object>>> values = repository.readRanges(ranges);
+        return toOrders(groupId, values.get(0), concat(values.subList(1, values.size())));
+    }
+
+    @Override
+    public GroupContents findGroupContents(String groupId) throws IOException {
+        Map<String, List<MenuItem>> menus = menuCache.get(RegionContext.get());
+        if (menus != null) {
+            return new GroupContents(findMenu(groupId), findOrdersByGroup(groupId));
+        }
+        // Cold menu cache: menu, live and history orders in one round trip
+        List<String> ranges = new ArrayList<>(List.of(RANGE_MENUS, RANGE_ORDERS));
+        ranges.addAll(historyRanges(groupId));
+        List<List<List<Object>>> values = repository.readRanges(ranges);
+        synchronized (menuCache) {
+            menus = menuCache.computeIfAbsent(RegionContext.get(), region -> indexMenus(values.get(0)));
+        }
+        return new GroupContents(new ArrayList<>(menus.getOrDefault(groupId, List.of())),
+                toOrders(groupId, values.get(1), concat(values.subList(2, values.size()))));
+    }
+
+    /**
+     * Ranges of the history tabs that can hold orders of the group: its month partition and,
+     * for groups archived before partitioning, the legacy History Orders tab.
+     */
+    private List<String> historyRanges(String groupId) throws IOException {
+        List<String> ranges = new ArrayList<>();
+        for (String sheet : partitions().sheetsOf(groupId)) {
+            ranges.add(range(sheet, "A2:K"));
+        }
+        return ranges;
+    }
+
+    /**
+     * History directory of the current region, loaded on first use from the tab list, the
+     * Groups tab (createdAt decides a group's partition) and the legacy History Orders tab.
+     */
+    private HistoryPartitions partitions() throws IOException {
+        HistoryPartitions partitions = partitionsCache.get(RegionContext.get());
+        if (partitions != null) {
+            return partitions;
+        }
+        synchronized (partitionsCache) {
+            partitions = partitionsCache.get(RegionContext.get());
+            if (partitions != null) {
+                return partitions;
+            }
+            partitions = new HistoryPartitions();
+            partitions.sheets.addAll(repository.listSheets());
+            boolean hasLegacy = partitions.sheets.contains(HistoryPartitions.LEGACY_SHEET);
+            List<List<List<Object>>> values = repository.readRanges(
+                    hasLegacy ? List.of(RANGE_GROUPS, RANGE_HISTORY_ORDERS) : List.of(RANGE_GROUPS));
+            for (List<Object> row : values.get(0)) {
+                YearMonth month = GroupRows.isGroup(row) ? monthOf(DateTimes.parse(GroupRows.createdAt(row))) : null;
+                if (month != null) {
+                    partitions.partitionByGroup.put(GroupRows.id(row), HistoryPartitions.sheetFor(month));
+                }
+            }
+            if (hasLegacy) {
+                partitions.legacyGroups.addAll(groupIdsOf(values.get(1)));
+            }
+            partitionsCache.put(RegionContext.get(), partitions);
+            log.info("[HISTORY] Loaded history directory for region={}: {} groups, {} legacy",
+                    RegionContext.get(), partitions.partitionByGroup.size(), partitions.legacyGroups.size());
+            return partitions;
+        }
+    }
+
+    /**
+     * Appends archived order rows to the month partition of their group, creating the tab on
+     * first use, and records their rows in the index.
+     */
+    private void archiveRows(List<List<Object>> rows) throws IOException {
+        HistoryPartitions partitions = partitions();
+        Map<String, List<List<Object>>> bySheet = new LinkedHashMap<>();
+        for (List<Object> row : rows) {
+            bySheet.computeIfAbsent(partitionFor(partitions, row), sheet -> new ArrayList<>()).add(row);
+        }
+        OrderRowIndex index = indexes.get(RegionContext.get());
+        for (Map.Entry<String, List<List<Object>>> entry : bySheet.entrySet()) {
+            String sheet = entry.getKey();
+            if (!partitions.sheets.contains(sheet)) {
+                repository.addSheet(sheet, OrderRows.HEADER);
+                partitions.sheets.add(sheet);
+            }
+            int firstRow = repository.appendRows(range(sheet, "A:K"), entry.getValue());
+            if (index != null && firstRow > 0) {
+                index.addHistory(sheet, entry.getValue(), firstRow);
+            } else {
+                indexes.remove(RegionContext.get());
+            }
+            log.info("[HISTORY] Archived {} orders to {}", entry.getValue().size(), sheet);
+        }
+    }
+
+    private String partitionFor(HistoryPartitions partitions, List<Object> row) {
+        String groupId = OrderRows.groupId(row);
+        String partition = partitions.partitionByGroup.get(groupId);
+        if (partition == null) {
+            // Group is not in the Groups tab; file the order under its own month
+            YearMonth month = monthOf(DateTimes.parse(OrderRows.createdAt(row)));
+            partition = HistoryPartitions.sheetFor(month != null ? month : YearMonth.now(TAIPEI_ZONE));
+            partitions.partitionByGroup.put(groupId, partition);
+        }
+        return partition;
+    }
+
+    private static YearMonth monthOf(Instant createdAt) {
+        return createdAt == null ? null : YearMonth.from(createdAt.atZone(TAIPEI_ZONE));
+    }
+
+    private static Set<String> groupIdsOf(List<List<Object>> rows) {
+        Set<String> groupIds = new HashSet<>();
+        for (List<Object> row : rows) {
+            if (row.size() > OrderRows.GROUP_ID) {
+                groupIds.add(OrderRows.groupId(row));
+            }
+        }
+        return groupIds;
+    }
+
+    private static String range(String sheet, String cells) {
+        return "'" + sheet + "'!" + cells;
+    }
+
+    private static List<List<Object>> concat(List<List<List<Object>>> parts) {
+        List<List<Object>> rows = new ArrayList<>();
+        parts.forEach(rows::addAll);
+        return rows;
+    }
+
+    private List<Order> toOrders(String groupId, List<List<Object>> liveValues, List<List<Object>> historyValues) {
+        List<List<Object>> allValues = new ArrayList<>();
+        if (liveValues != null)
+            allValues.addAll(liveValues);
+        if (historyValues != null)
+            allValues.addAll(historyValues);
+
+        if (allValues.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        if (incrementalOrders) {
+            // Appended rows are not re-sorted on the sheet; sort the live part here instead
+            List<List<Object>> live = new ArrayList<>(safeRows(liveValues));
+            java.text.Collator collator = java.text.Collator.getInstance(java.util.Locale.TAIWAN);
+            live.removeIf(row -> row.size() <= OrderRows.ITEM_NAME);
+            live.sort((r1, r2) -> collator.compare(OrderRows.itemName(r1), OrderRows.itemName(r2)));
+            allValues = new ArrayList<>(live);
+            allValues.addAll(safeRows(historyValues));
+        }
+
+        return allValues.stream()
+                .filter(row -> row.size() > OrderRows.TOTAL_PRICE && OrderRows.isOrder(row)
+                        && OrderRows.groupId(row).equals(groupId))
+                .map(OrderRows::decode)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Boolean> applyOrderMutations(List<OrderMutation> mutations) throws IOException {
+        ReentrantLock lock = ordersLock();
+        lock.lock();
+        try {
+            if (incrementalOrders) {
+                List<Boolean> results = applyIncrementally(mutations);
+                if (results != null) {
+                    return results;
+                }
+            } else if (mutations.stream().allMatch(m -> m.type() == OrderMutation.Type.PAID)) {
+                // Paid toggles never move rows, so no rewrite (and no read) is needed
+                Boolean[] results = new Boolean[mutations.size()];
+                List<Integer> paidIndexes = new ArrayList<>();
+                for (int m = 0; m < mutations.size(); m++) {
+                    paidIndexes.add(m);
+                }
+                writePaidFlags(mutations, paidIndexes, results);
+                return Arrays.asList(results);
+            }
+            return rewriteOrders(mutations);
+        } catch (IOException | RuntimeException e) {
+            // The sheet may be half written; rebuild the index before the next write
+            indexes.remove(RegionContext.get());
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Incremental mode: new rows overwrite the TOTAL row and push it one row down, deleted
+     * rows are blanked, and the TOTAL row is rewritten from the running count/sum. Rows are
+     * located through the index, so nothing is read. Returns null when the batch needs the
+     * full rewrite (orders of another group must be archived first).
+     */
+    private List<Boolean> applyIncrementally(List<OrderMutation> mutations) throws IOException {
+        OrderRowIndex index = rowIndex();
+        String groupId = index.groupId;
+        for (OrderMutation mutation : mutations) {
+            if (mutation.type() == OrderMutation.Type.ADD) {
+                if (index.mixedGroups || (groupId != null && !groupId.equals(mutation.groupId()))) {
+                    return null;
+                }
+                groupId = mutation.groupId();
+            }
+        }
+
+        Map<String, List<List<Object>>> writes = new LinkedHashMap<>();
+        List<Integer> paidIndexes = new ArrayList<>();
+        Boolean[] results = new Boolean[mutations.size()];
+        boolean totalChanged = false;
+
+        for (int m = 0; m < mutations.size(); m++) {
+            OrderMutation mutation = mutations.get(m);
+            switch (mutation.type()) {
+                case ADD -> {
+                    // Journal replays may repeat an order that already reached the sheet
+                    if (!index.isLive(mutation.orderId())) {
+                        List<Object> row = OrderRows.encode(mutation.order());
+                        writes.put(rowRange(index.totalRowNumber), List.of(row));
+                        index.addLive(row);
+                        totalChanged = true;
+                    }
+                    results[m] = true;
+                }
+                case DELETE -> {
+                    OrderRowIndex.RowRef ref = index.find(mutation.groupId(), mutation.orderId());
+                    boolean found = ref != null && OrderRowIndex.ORDERS_SHEET.equals(ref.sheet());
+                    if (found) {
+                        index.removeLive(mutation.orderId());
+                        writes.put(rowRange(ref.rowNumber()), List.of(OrderRows.blankRow()));
+                        totalChanged = true;
+                    }
+                    results[m] = found;
+                }
+                case PAID -> paidIndexes.add(m);
+            }
+        }
+
+        if (totalChanged) {
+            writes.put(rowRange(index.totalRowNumber), List.of(OrderRows.totalRow(index.count, index.sum)));
+        }
+        if (!writes.isEmpty()) {
+            log.info("[ORDERS] Incremental write of {} range(s), TOTAL at row {}", writes.size(),
+                    index.totalRowNumber);
+            repository.batchUpdateData(writes);
+        }
+
+        writePaidFlags(mutations, paidIndexes, results);
+        return Arrays.asList(results);
+    }
+
+    private List<Boolean> rewriteOrders(List<OrderMutation> mutations) throws IOException {
+        // Full Rewrite Approach to ensure single TOTAL row and avoid intercalation
+        log.info("[ORDERS] Applying {} mutation(s), reading existing orders from Sheets...", mutations.size());
+        List<List<Object>> allRows = safeRows(repository.readDataForWrite(RANGE_ORDERS));
+        log.info("[ORDERS] Read {} rows from Sheets", allRows.size());
+
+        List<List<Object>> liveRows = new ArrayList<>();
+        for (List<Object> r : allRows) {
+            // Blank rows are left behind by incremental deletes
+            if (OrderRows.isOrder(r)) {
+                liveRows.add(r);
+            }
+        }
+
+        List<List<Object>> archivedRows = new ArrayList<>();
+        List<Integer> paidIndexes = new ArrayList<>();
+        List<Integer> livePaidIndexes = new ArrayList<>();
+        Boolean[] results = new Boolean[mutations.size()];
+        boolean rewrite = false;
+
+        for (int m = 0; m < mutations.size(); m++) {
+            OrderMutation mutation = mutations.get(m);
+            int index = indexOf(liveRows, mutation.groupId(), mutation.orderId());
+            switch (mutation.type()) {
+                case ADD -> {
+                    // Archive orders from other groups
+                    for (Iterator<List<Object>> it = liveRows.iterator(); it.hasNext();) {
+                        List<Object> row = it.next();
+                        if (!OrderRows.groupId(row).equals(mutation.groupId())) {
+                            archivedRows.add(row);
+                            it.remove();
+                            rewrite = true;
+                        }
+                    }
+                    // Journal replays may repeat an order that already reached the sheet
+                    if (index == -1) {
+                        liveRows.add(OrderRows.encode(mutation.order()));
+                        rewrite = true;
+                    } else {
+                        log.info("[ORDERS] Order {} already in sheet, skipping", mutation.orderId());
+                    }
+                    results[m] = true;
+                }
+                case DELETE -> {
+                    if (index != -1) {
+                        liveRows.remove(index);
+                        rewrite = true;
+                    }
+                    results[m] = index != -1;
+                }
+                case PAID -> {
+                    if (index != -1) {
+                        liveRows.set(index, OrderRows.withPaid(liveRows.get(index), mutation.paid()));
+                        results[m] = true;
+                        livePaidIndexes.add(m);
+                    } else {
+                        paidIndexes.add(m);
+                    }
+                }
+            }
+        }
+
+        if (!archivedRows.isEmpty()) {
+            log.info("[ORDERS] Archiving {} orders from other groups...", archivedRows.size());
+            archiveRows(archivedRows);
+        }
+
+        if (rewrite) {
+            // Added Logic: Sort by Item Name (Index 3)
+            java.text.Collator collator = java.text.Collator.getInstance(java.util.Locale.TAIWAN);
+            liveRows.sort((o1, o2) -> collator.compare(OrderRows.itemName(o1), OrderRows.itemName(o2)));
+
+            List<List<Object>> output = addTotalRow(liveRows);
+            log.info("[ORDERS] Rewriting {} rows to Sheets...", output.size());
+            rewriteRange(RANGE_ORDERS, output);
+            OrderRowIndex rowIndex = indexes.get(RegionContext.get());
+            if (rowIndex != null) {
+                rowIndex.resetLive(output);
+            }
+        } else {
+            // Rows did not move, so paid flags can be written in place
+            paidIndexes.addAll(livePaidIndexes);
+        }
+
+        writePaidFlags(mutations, paidIndexes, results);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Writes the paid cell of each PAID mutation at the row the index points to, all in one
+     * request. On a miss the history partitions of the group are read into the index; if the
+     * order is still missing, index and directory are rebuilt once, in case the tabs changed
+     * behind our back.
+     */
+    private void writePaidFlags(List<OrderMutation> mutations, List<Integer> paidIndexes, Boolean[] results)
+            throws IOException {
+        if (paidIndexes.isEmpty()) {
+            return;
+        }
+        Map<String, List<List<Object>>> writes = new LinkedHashMap<>();
+        List<Integer> misses = resolvePaidCells(rowIndex(), mutations, paidIndexes, results, writes);
+        if (!misses.isEmpty()) {
+            loadHistoryOf(rowIndex(), mutations, misses);
+            misses = resolvePaidCells(rowIndex(), mutations, misses, results, writes);
+        }
+        if (!misses.isEmpty()) {
+            indexes.remove(RegionContext.get());
+            partitionsCache.remove(RegionContext.get());
+            loadHistoryOf(rowIndex(), mutations, misses);
+            resolvePaidCells(rowIndex(), mutations, misses, results, writes);
+        }
+        if (!writes.isEmpty()) {
+            repository.batchUpdateData(writes);
+        }
+    }
+
+    private void loadHistoryOf(OrderRowIndex index, List<OrderMutation> mutations, List<Integer> misses)
+            throws IOException {
+        Set<String> sheets = new LinkedHashSet<>();
+        for (int m : misses) {
+            for (String sheet : partitions().sheetsOf(mutations.get(m).groupId())) {
+                if (!index.isLoaded(sheet)) {
+                    sheets.add(sheet);
+                }
+            }
+        }
+        if (sheets.isEmpty()) {
+            return;
+        }
+        List<String> ranges = new ArrayList<>();
+        sheets.forEach(sheet -> ranges.add(range(sheet, "A2:K")));
+        List<List<List<Object>>> values = repository.readRangesForWrite(ranges);
+        int i = 0;
+        for (String sheet : sheets) {
+            index.loadHistory(sheet, values.get(i++));
+        }
+    }
+
+    private List<Integer> resolvePaidCells(OrderRowIndex index, List<OrderMutation> mutations,
+            List<Integer> paidIndexes, Boolean[] results, Map<String, List<List<Object>>> writes) {
+        List<Integer> misses = new ArrayList<>();
+        for (int m : paidIndexes) {
+            OrderMutation mutation = mutations.get(m);
+            OrderRowIndex.RowRef ref = index.find(mutation.groupId(), mutation.orderId());
+            if (ref != null) {
+                writes.put(range(ref.sheet(), "K" + ref.rowNumber()), paidCell(mutation.paid()));
+            } else {
+                misses.add(m);
+            }
+            results[m] = ref != null;
+        }
+        return misses;
+    }
+
+    /**
+     * The region's order row index, built from one read of Orders the first time it is
+     * needed (and again after a failed write).
+     */
+    private OrderRowIndex rowIndex() throws IOException {
+        String region = RegionContext.get();
+        OrderRowIndex index = indexes.get(region);
+        if (index == null) {
+            index = OrderRowIndex.of(safeRows(repository.readDataForWrite(RANGE_ORDERS)));
+            indexes.put(region, index);
+            log.info("[ORDERS] Built order row index for region={}", region);
+        }
+        return index;
+    }
+
+    @Override
+    public void archiveOrders() throws IOException {
+        ReentrantLock lock = ordersLock();
+        lock.lock();
+        try {
+            List<List<Object>> realOrders = new ArrayList<>();
+            for (List<Object> row : safeRows(repository.readDataForWrite(RANGE_ORDERS))) {
+                if (OrderRows.isOrder(row)) {
+                    realOrders.add(row);
+                }
+            }
+            if (!realOrders.isEmpty()) {
+                archiveRows(realOrders);
+            }
+            // Clear the whole live orders sheet
+            repository.clearData(RANGE_ORDERS);
+            OrderRowIndex index = indexes.get(RegionContext.get());
+            if (index != null) {
+                index.resetLive(List.of());
+            }
+            log.info("Archived {} real orders to history", realOrders.size());
+        } catch (IOException | RuntimeException e) {
+            indexes.remove(RegionContext.get());
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Restaurant> findAllRestaurants() {
+        return repository.getAllRestaurants();
+    }
+
+    @Override
+    public void saveRestaurant(Restaurant restaurant) throws IOException {
+        repository.saveRestaurant(restaurant);
+    }
+
+    @Override
+    public RetentionResult deleteDataBefore(ZonedDateTime cutoff) throws IOException {
+        ReentrantLock lock = ordersLock();
+        lock.lock();
+        try {
+            indexes.remove(RegionContext.get());
+            return deleteRowsBefore(cutoff);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private RetentionResult deleteRowsBefore(ZonedDateTime cutoff) throws IOException {
+        HistoryPartitions partitions = partitions();
+        boolean hasLegacy = partitions.sheets.contains(HistoryPartitions.LEGACY_SHEET);
+        List<String> ranges = new ArrayList<>(List.of(RANGE_GROUPS, RANGE_MENUS, RANGE_ORDERS));
+        if (hasLegacy) {
+            ranges.add(RANGE_HISTORY_ORDERS);
+        }
+        List<List<List<Object>>> values = repository.readRangesForWrite(ranges);
+        List<List<Object>> groups = values.get(0);
+        List<List<Object>> keptGroups = keepRowsAfter(groups, GroupRows.CREATED_AT, cutoff);
+        rewriteRange(RANGE_GROUPS, keptGroups);
+
+        Set<String> aliveGroupIds = new HashSet<>();
+        for (List<Object> row : keptGroups) {
+            if (SheetCells.has(row, GroupRows.ID)) {
+                aliveGroupIds.add(GroupRows.id(row));
+            }
+        }
+
+        List<List<Object>> menus = values.get(1);
+        List<List<Object>> keptMenus = new ArrayList<>();
+        for (List<Object> row : menus) {
+            if (!row.isEmpty() && aliveGroupIds.contains(MenuRows.groupId(row))) {
+                keptMenus.add(row);
+            }
+        }
+        rewriteRange(RANGE_MENUS, keptMenus);
+        synchronized (menuCache) {
+            menuCache.put(RegionContext.get(), indexMenus(keptMenus));
+        }
+
+        // Rows blanked by incremental deletes have no date and would otherwise be kept forever
+        List<List<Object>> orders = skipBlankRows(skipTotalRows(values.get(2)));
+        List<List<Object>> keptOrders = keepRowsAfter(orders, OrderRows.CREATED_AT, cutoff);
+        rewriteRange(RANGE_ORDERS, addTotalRow(keptOrders));
+        // The Orders tab was just written from these rows; history is read in again on demand
+        indexes.put(RegionContext.get(), OrderRowIndex.of(addTotalRow(keptOrders)));
+
+        // Whole month partitions that ended before the cutoff are dropped, never rewritten
+        List<String> expired = new ArrayList<>();
+        for (String sheet : partitions.sheets) {
+            YearMonth month = HistoryPartitions.monthOf(sheet);
+            if (month != null && !month.plusMonths(1).atDay(1).atStartOfDay(TAIPEI_ZONE).isAfter(cutoff)) {
+                expired.add(sheet);
+            }
+        }
+        if (!expired.isEmpty()) {
+            repository.deleteSheets(expired);
+            expired.forEach(partitions.sheets::remove);
+            log.info("[HISTORY] Dropped {} expired partitions: {}", expired.size(), expired);
+        }
+        partitions.partitionByGroup.keySet().retainAll(aliveGroupIds);
+
+        // The legacy tab only shrinks; it is rewritten until its last rows expire
+        List<List<Object>> keptHistory = new ArrayList<>();
+        if (hasLegacy) {
+            List<List<Object>> historyOrders = values.get(3);
+            keptHistory = keepRowsAfter(skipTotalRows(historyOrders), OrderRows.CREATED_AT, cutoff);
+            if (keptHistory.size() != historyOrders.size()) {
+                rewriteRange(RANGE_HISTORY_ORDERS, keptHistory);
+            }
+            partitions.legacyGroups.retainAll(groupIdsOf(keptHistory));
+        }
+
+        return new RetentionResult(keptGroups.size(), keptMenus.size(), keptOrders.size(), keptHistory.size());
+    }
+
+    /**
+     * Every read-modify-write of the order tabs of a region holds this lock, so the
+     * order writer and the journal flusher never interleave.
+     */
+    private ReentrantLock ordersLock() {
+        return ordersLocks.computeIfAbsent(RegionContext.get(), region -> new ReentrantLock());
+    }
+
+    private List<List<Object>> paidCell(boolean paid) {
+        return Collections.singletonList(Collections.singletonList(paid));
+    }
+
+    private String rowRange(int rowNumber) {
+        return "Orders!A" + rowNumber + ":K" + rowNumber;
+    }
+
+    private int indexOf(List<List<Object>> rows, String groupId, String orderId) {
+        for (int i = 0; i < rows.size(); i++) {
+            List<Object> row = rows.get(i);
+            if (OrderRows.id(row).equals(orderId) && OrderRows.groupId(row).equals(groupId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<List<Object>> addTotalRow(List<List<Object>> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+
+        int totalSum = 0;
+        int totalCount = 0;
+        for (List<Object> row : orders) {
+            if (row.size() > OrderRows.TOTAL_PRICE) {
+                totalSum += OrderRows.totalPrice(row);
+                totalCount += OrderRows.quantity(row);
+            }
+        }
+
+        List<List<Object>> output = new ArrayList<>(orders);
+        output.add(OrderRows.totalRow(totalCount, totalSum));
+        return output;
+    }
+
+    private void rewriteRange(String range, List<List<Object>> rows) throws IOException {
+        repository.clearData(range);
+        if (!rows.isEmpty()) {
+            repository.updateData(range, rows);
+        }
+    }
+
+    private List<List<Object>> safeRows(List<List<Object>> rows) {
+        return rows == null ? new ArrayList<>() : rows;
+    }
+
+    private List<List<Object>> skipTotalRows(List<List<Object>> rows) {
+        List<List<Object>> output = new ArrayList<>();
+        for (List<Object> row : rows) {
+            if (!row.isEmpty() && OrderRows.isTotal(row)) {
+                continue;
+            }
+            output.add(row);
+        }
+        return output;
+    }
+
+    private List<List<Object>> skipBlankRows(List<List<Object>> rows) {
+        List<List<Object>> output = new ArrayList<>();
+        for (List<Object> row : rows) {
+            if (!OrderRows.isBlank(row)) {
+                output.add(row);
+            }
+        }
+        return output;
+    }
+
+    List<List<Object>> keepRowsAfter(List<List<Object>> rows, int dateColumnIndex, ZonedDateTime cutoff) {
+        Instant cutoffInstant = cutoff.toInstant();
+        List<List<Object>> output = new ArrayList<>();
+        for (List<Object> row : rows) {
+            if (!SheetCells.has(row, dateColumnIndex)) {
+                // If date is missing, keep data to avoid accidental deletion.
+                output.add(row);
+                continue;
+            }
+
+            Instant date = DateTimes.parse(SheetCells.text(row, dateColumnIndex));
+            if (date == null || !date.isBefore(cutoffInstant)) {
+                output.add(row);
+            }
+        }
+        return output;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.lunch.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the ranges read from one region's spreadsheet. A range is mirrored the
+ * first time it is read and then served from memory. Writes of this process invalidate the
+ * ranges of the tab they touch; the background refresh replaces ranges that changed in the
+ * sheet itself (manual edits).
+ *
+ * Every tab has a write generation. A fetch records it before calling the API and its result
+ * is dropped if a write bumped it meanwhile, so a slow read never overwrites newer data.
+ *
+ * The same structure holds the last known good values for stale-while-revalidate reads.
+ */
+class SheetsMirror {
+
+    private final Map<String, List<List<Object>>> ranges = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Map<String, Long> fetchedAt = new ConcurrentHashMap<>();
+    final Map<String, String> checksums = new ConcurrentHashMap<>();
+    volatile long lastFullRefresh;
+
+    /**
+     * "'History Orders 2026-10'!A2:K" → "History Orders 2026-10", "Groups!A:A" → "Groups".
+     */
+    static String sheetOf(String range) {
+        int bang = range.lastIndexOf('!');
+        String sheet = bang == -1 ? range : range.substring(0, bang);
+        if (sheet.length() >= 2 && sheet.startsWith("'") && sheet.endsWith("'")) {
+            sheet = sheet.substring(1, sheet.length() - 1);
+        }
+        return sheet;
+    }
+
+    /**
+     * Mirrored rows of the range, or null when it has to be fetched.
+     */
+    List<List<Object>> get(String range) {
+        List<List<Object>> rows = ranges.get(range);
+        return rows == null ? null : new ArrayList<>(rows);
+    }
+
+    /**
+     * Milliseconds since the range was fetched, Long.MAX_VALUE when it is not held.
+     */
+    long ageMs(String range) {
+        Long at = fetchedAt.get(range);
+        return at == null ? Long.MAX_VALUE : System.currentTimeMillis() - at;
+    }
+
+    long generation(String sheet) {
+        return generations.computeIfAbsent(sheet, s -> new AtomicLong()).get();
+    }
+
+    /**
+     * Stores fetched rows unless the tab was written since the fetch started. Returns whether
+     * the stored rows differ from what was mirrored before.
+     */
+    synchronized boolean put(String range, List<List<Object>> rows, long generationAtFetch) {
+        if (generation(sheetOf(range)) != generationAtFetch) {
+            return false;
+        }
+        List<List<Object>> copy = new ArrayList<>();
+        if (rows != null) {
+            for (List<Object> row : rows) {
+                copy.add(Collections.unmodifiableList(new ArrayList<>(row)));
+            }
+        }
+        List<List<Object>> previous = ranges.put(range, Collections.unmodifiableList(copy));
+        fetchedAt.put(range, System.currentTimeMillis());
+        return previous != null && !previous.equals(copy);
+    }
+
+    synchronized void invalidate(String sheet) {
+        generations.computeIfAbsent(sheet, s -> new AtomicLong()).incrementAndGet();
+        ranges.keySet().removeIf(range -> sheetOf(range).equals(sheet));
+        fetchedAt.keySet().removeIf(range -> sheetOf(range).equals(sheet));
+    }
+
+    synchronized void clear() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        ranges.clear();
+        fetchedAt.clear();
+        checksums.clear();
+    }
+
+    Set<String> mirroredRanges() {
+        return Set.copyOf(ranges.keySet());
+    }
+}
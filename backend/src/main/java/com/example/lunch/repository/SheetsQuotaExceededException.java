@@ -0,0 +1,12 @@
+package com.example.lunch.repository;
+
+/**
+ * Thrown without calling Google when the local request budget would make the caller wait
+ * longer than sheets.quota.max-wait-ms.
+ */
+public class SheetsQuotaExceededException extends SheetsUnavailableException {
+
+    public SheetsQuotaExceededException(long waitMs) {
+        super("Google Sheets 請求過多，請稍後再試（下個請求時段約 " + waitMs + " ms 後）");
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.config.RegionContext;
+import com.google.api.client.http.HttpBackOffUnsuccessfulResponseHandler;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.client.util.ExponentialBackOff;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the Sheets client inside the API quota (per user, per minute):
+ * <ul>
+ * <li>token buckets per spreadsheet, one for reads and one for writes like the API's own quotas,
+ * so a burst of page reads never delays an order write. A call takes its token in
+ * {@link SheetsCircuitBreaker#call} before it holds a request slot; retries are charged
+ * without waiting;</li>
+ * <li>exponential backoff with jitter on 429 and 5xx responses;</li>
+ * <li>single-flight reads, so concurrent identical reads share one call;</li>
+ * <li>per-minute usage counters per region for /api/debug/sheets-quota.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SheetsQuotaGuard {
+
+    private static final int KEPT_MINUTES = 15;
+    private static final DateTimeFormatter MINUTE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(ZoneId.of("Asia/Taipei"));
+
+    @Value("${sheets.quota.requests-per-minute:60}")
+    private int requestsPerMinute;
+
+    @Value("${sheets.quota.write-requests-per-minute:60}")
+    private int writeRequestsPerMinute;
+
+    // A caller gives up with an IOException rather than queueing longer than this for a token
+    @Value("${sheets.quota.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    @Value("${sheets.quota.backoff-initial-ms:1000}")
+    private int backoffInitialMs;
+
+    @Value("${sheets.quota.backoff-max-elapsed-ms:60000}")
+    private int backoffMaxElapsedMs;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListMap<Long, Usage>> usage = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface SheetsCall<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Usage of one region in one minute.
+     */
+    public record MinuteUsage(String minute, long requests, long retries, long throttled, long serverErrors,
+            long coalesced, long waitedMs) {
+    }
+
+    private static class Usage {
+        final LongAdder requests = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder throttled = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder waitedMs = new LongAdder();
+    }
+
+    private static class TokenBucket {
+        private final double capacity;
+        private final double tokensPerMs;
+        private double tokens;
+        private long refilledAt = System.currentTimeMillis();
+
+        TokenBucket(int perMinute) {
+            this.capacity = perMinute;
+            this.tokensPerMs = perMinute / 60_000.0;
+            this.tokens = perMinute;
+        }
+
+        /**
+         * Takes a token, going into debt when the bucket is empty. Returns how long the caller
+         * has to wait before its token is covered.
+         */
+        synchronized long reserve() {
+            long now = System.currentTimeMillis();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerMs);
+            refilledAt = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerMs);
+        }
+
+        // A retry already waited out its backoff; its token is only owed, later callers wait for it
+        synchronized void charge() {
+            reserve();
+        }
+
+        synchronized void giveBack() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+
+    /**
+     * Wraps the credentials' initializer: keeps its interceptor and 401 handling, counts every
+     * attempt and adds the 429/5xx backoff behind it.
+     */
+    public HttpRequestInitializer wrap(HttpRequestInitializer credentials) {
+        return request -> {
+            credentials.initialize(request);
+            HttpExecuteInterceptor auth = request.getInterceptor();
+            request.setInterceptor(req -> {
+                currentUsage().requests.increment();
+                if (auth != null) {
+                    auth.intercept(req);
+                }
+            });
+
+            HttpUnsuccessfulResponseHandler authRetry = request.getUnsuccessfulResponseHandler();
+            HttpBackOffUnsuccessfulResponseHandler backOff = new HttpBackOffUnsuccessfulResponseHandler(
+                    new ExponentialBackOff.Builder()
+                            .setInitialIntervalMillis(backoffInitialMs)
+                            .setMultiplier(2)
+                            .setRandomizationFactor(0.5)
+                            .setMaxIntervalMillis(32_000)
+                            .setMaxElapsedTimeMillis(backoffMaxElapsedMs)
+                            .build())
+                    .setBackOffRequired(response -> isRetryable(response.getStatusCode()));
+            request.setUnsuccessfulResponseHandler((req, response, supportsRetry) -> {
+                if (authRetry != null && authRetry.handleResponse(req, response, supportsRetry)) {
+                    return true;
+                }
+                int status = response.getStatusCode();
+                Usage current = currentUsage();
+                if (status == 429) {
+                    current.throttled.increment();
+                } else if (status >= 500) {
+                    current.serverErrors.increment();
+                }
+                boolean retry = backOff.handleResponse(req, response, supportsRetry);
+                if (retry) {
+                    bucket(spreadsheetOf(req), isWrite(req)).charge();
+                    current.retries.increment();
+                    log.warn("[QUOTA] Sheets answered {} for {}, retrying", status, req.getRequestMethod());
+                }
+                return retry;
+            });
+        };
+    }
+
+    /**
+     * Runs the read, or joins the identical read already in flight. The result is shared
+     * between the callers, so they must copy it before changing it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String key, SheetsCall<T> call) throws IOException {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            currentUsage().coalesced.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            T result = call.call();
+            mine.complete(result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Called after a write: reads started before it must not be joined by later callers.
+     */
+    public void forgetInFlight(String keyPrefix) {
+        inFlight.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    /**
+     * Usage of the last minutes, newest first, per region.
+     */
+    public Map<String, List<MinuteUsage>> usage() {
+        Map<String, List<MinuteUsage>> result = new LinkedHashMap<>();
+        usage.forEach((region, minutes) -> {
+            List<MinuteUsage> list = new ArrayList<>();
+            minutes.descendingMap().forEach((minute, u) -> list.add(new MinuteUsage(
+                    MINUTE.format(Instant.ofEpochSecond(minute * 60)),
+                    u.requests.sum(), u.retries.sum(), u.throttled.sum(), u.serverErrors.sum(),
+                    u.coalesced.sum(), u.waitedMs.sum())));
+            result.put(region, list);
+        });
+        return result;
+    }
+
+    /**
+     * Takes a token of the spreadsheet's read or write budget, waiting for it if needed.
+     */
+    public void acquire(String spreadsheetId, boolean write) throws IOException {
+        TokenBucket bucket = bucket(spreadsheetId, write);
+        long waitMs = bucket.reserve();
+        Usage current = currentUsage();
+        if (waitMs > maxWaitMs) {
+            bucket.giveBack();
+            current.throttled.increment();
+            throw new SheetsQuotaExceededException(waitMs);
+        }
+        if (waitMs > 0) {
+            current.waitedMs.add(waitMs);
+            try {
+                Thread.sleep(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for Sheets quota");
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #acquire} for a call that was not made.
+     */
+    public void giveBack(String spreadsheetId, boolean write) {
+        bucket(spreadsheetId, write).giveBack();
+    }
+
+    private TokenBucket bucket(String spreadsheetId, boolean write) {
+        return buckets.computeIfAbsent(spreadsheetId + (write ? "|write" : "|read"),
+                key -> new TokenBucket(write ? writeRequestsPerMinute : requestsPerMinute));
+    }
+
+    private Usage currentUsage() {
+        long minute = System.currentTimeMillis() / 60_000;
+        ConcurrentSkipListMap<Long, Usage> minutes = usage.computeIfAbsent(RegionContext.get(),
+                region -> new ConcurrentSkipListMap<>());
+        minutes.headMap(minute - KEPT_MINUTES).clear();
+        return minutes.computeIfAbsent(minute, m -> new Usage());
+    }
+
+    private static boolean isWrite(HttpRequest request) {
+        return !"GET".equals(request.getRequestMethod());
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    // /v4/spreadsheets/{id}/values/..., /v4/spreadsheets/{id}:batchUpdate → {id}
+    private static String spreadsheetOf(HttpRequest request) {
+        List<String> parts = request.getUrl().getPathParts();
+        if (parts != null) {
+            int i = parts.indexOf("spreadsheets");
+            if (i != -1 && i + 1 < parts.size()) {
+                String id = parts.get(i + 1);
+                int colon = id.indexOf(':');
+                return colon == -1 ? id : id.substring(0, colon);
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.lunch.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.IOException;
+
+/**
+ * Thrown without calling Google while the Sheets circuit is open, all Sheets request slots
+ * are taken or the local request budget is used up.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SheetsUnavailableException extends IOException {
+
+    public SheetsUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.lunch.scheduler;
+
+import com.example.lunch.service.GroupEventStream;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GroupEventHeartbeatScheduler {
+
+    private final GroupEventStream groupEventStream;
+
+    public GroupEventHeartbeatScheduler(GroupEventStream groupEventStream) {
+        this.groupEventStream = groupEventStream;
+    }
+
+    @Scheduled(fixedDelayString = "${sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        groupEventStream.heartbeat();
+    }
+}
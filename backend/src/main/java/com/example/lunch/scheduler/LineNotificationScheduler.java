@@ -1,8 +1,9 @@
 package com.example.lunch.scheduler;
 
 import com.example.lunch.config.RegionContext;
+import com.example.lunch.model.DateTimes;
 import com.example.lunch.model.DiningGroup;
-import com.example.lunch.model.Order;
+import com.example.lunch.model.OrderSummary;
 import com.example.lunch.service.GroupService;
 import com.example.lunch.service.LineNotificationService;
 import com.example.lunch.service.OrderService;
@@ -14,7 +15,6 @@ import org.springframework.stereotype.Component;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 @Component
@@ -49,37 +49,27 @@ public class LineNotificationScheduler {
         // Notifications are only enabled for Taichung.
         RegionContext.set("taichung");
         try {
-            List<DiningGroup> groups = groupService.getAllGroups();
-            if (groups.isEmpty()) {
+            // 只檢查最新的團購
+            DiningGroup latestGroup = groupService.getLatestGroup();
+            if (latestGroup == null) {
                 return;
             }
 
-            // 只檢查最新的團購
-            DiningGroup latestGroup = groups.get(groups.size() - 1);
-
             // 台北地區不發 LINE 通知
             if ("taipei".equals(latestGroup.getRegion())) {
                 return;
             }
 
-            ZonedDateTime deadline;
-
-            try {
-                deadline = ZonedDateTime.parse(latestGroup.getDeadline());
-            } catch (Exception e) {
-                try {
-                    deadline = java.time.LocalDateTime.parse(latestGroup.getDeadline())
-                            .atZone(java.time.ZoneId.of("Asia/Taipei"));
-                } catch (Exception e2) {
-                    // 如果解析失敗，跳過
-                    System.err.println("Failed to parse deadline: " + latestGroup.getDeadline());
-                    return;
-                }
+            if (latestGroup.getDeadlineInstant() == null) {
+                // 如果解析失敗，跳過
+                System.err.println("Failed to parse deadline: " + latestGroup.getDeadline());
+                return;
             }
+            ZonedDateTime deadline = latestGroup.getDeadlineInstant().atZone(DateTimes.TAIPEI);
 
             String groupId = latestGroup.getId();
 
-            ZonedDateTime now = ZonedDateTime.now(java.time.ZoneId.of("Asia/Taipei"));
+            ZonedDateTime now = ZonedDateTime.now(DateTimes.TAIPEI);
             long minutesUntilDeadline = ChronoUnit.MINUTES.between(now, deadline);
 
             System.out.println("=== LINE Notification Check ===");
@@ -96,14 +86,14 @@ public class LineNotificationScheduler {
                 long minutesSinceDeadline = ChronoUnit.MINUTES.between(deadline, now);
                 if (minutesSinceDeadline <= 1) {
                     if (!sentSummaries.contains(groupId)) {
-                        List<Order> orders = orderService.getOrdersByGroup(groupId);
-                        if (!orders.isEmpty()) {
+                        OrderSummary summary = orderService.getSummary(groupId);
+                        if (summary.orderCount() > 0) {
                             System.out.println("Sending order summary and statistics...");
                             lineNotificationService.sendOrderSummaryAndStatistics(
                                     latestGroup.getName(),
                                     latestGroup.getDeadline(),
                                     latestGroup.getRestaurantPhone(),
-                                    orders);
+                                    summary);
                             sentSummaries.add(groupId);
                             System.out.println("✓ Sent order summary and statistics for group: " + groupId);
                         } else {
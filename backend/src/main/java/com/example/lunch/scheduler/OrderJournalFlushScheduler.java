@@ -0,0 +1,20 @@
+package com.example.lunch.scheduler;
+
+import com.example.lunch.repository.OrderJournal;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderJournalFlushScheduler {
+
+    private final OrderJournal orderJournal;
+
+    public OrderJournalFlushScheduler(OrderJournal orderJournal) {
+        this.orderJournal = orderJournal;
+    }
+
+    @Scheduled(fixedDelayString = "${storage.order-journal.flush-interval-ms:2000}")
+    public void flushJournal() {
+        orderJournal.flushAll();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.lunch.scheduler;
+
+import com.example.lunch.repository.GoogleSheetsRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SheetsMirrorRefreshScheduler {
+
+    private final GoogleSheetsRepository repository;
+
+    public SheetsMirrorRefreshScheduler(GoogleSheetsRepository repository) {
+        this.repository = repository;
+    }
+
+    @Scheduled(fixedDelayString = "${sheets.mirror.refresh-interval-ms:5000}")
+    public void refreshMirrors() {
+        repository.refreshMirrors();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.lunch.service;
+
+import com.example.lunch.repository.LunchStorage;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * Loads and caches the {@link GroupIndex} of the current region. A bean of its own so that
+ * calls from GroupService go through the cache proxy; GroupService evicts it on changes.
+ */
+@Service
+public class GroupCache {
+
+    private final LunchStorage storage;
+
+    public GroupCache(LunchStorage storage) {
+        this.storage = storage;
+    }
+
+    @Cacheable(value = "groups", key = "T(com.example.lunch.config.RegionContext).get()", unless = "#result.isEmpty()")
+    public GroupIndex index() throws IOException {
+        return new GroupIndex(storage.findAllGroups());
+    }
+}
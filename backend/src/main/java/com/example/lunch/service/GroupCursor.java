@@ -0,0 +1,40 @@
+package com.example.lunch.service;
+
+import com.example.lunch.model.DiningGroup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the newest-first group history: the createdAt and id of the last group of a
+ * page. Sent to clients as an opaque URL-safe token.
+ */
+public record GroupCursor(Instant created, String id) {
+
+    public static GroupCursor of(DiningGroup group) {
+        return new GroupCursor(GroupIndex.createdOrMin(group), group.getId());
+    }
+
+    public String encode() {
+        String text = created + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The cursor in the token, or null if it is not one of ours.
+     */
+    public static GroupCursor decode(String token) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int bar = text.indexOf('|');
+            if (bar < 0) {
+                return null;
+            }
+            return new GroupCursor(Instant.parse(text.substring(0, bar)), text.substring(bar + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.lunch.service;
+
+import com.example.lunch.model.Order;
+
+import java.util.Map;
+
+/**
+ * A committed change to one group, published as an application event and pushed to the
+ * group's SSE subscribers. type is the SSE event name, data its JSON payload.
+ */
+public record GroupEvent(String region, String groupId, String type, Object data) {
+
+    public static final String ORDER_ADDED = "order-added";
+    public static final String ORDER_REMOVED = "order-removed";
+    public static final String PAID_CHANGED = "paid-changed";
+    public static final String DEADLINE_CHANGED = "deadline-changed";
+
+    public static GroupEvent orderAdded(String region, Order order) {
+        return new GroupEvent(region, order.getGroupId(), ORDER_ADDED, order);
+    }
+
+    public static GroupEvent orderRemoved(String region, String groupId, String orderId) {
+        return new GroupEvent(region, groupId, ORDER_REMOVED, Map.of("id", orderId));
+    }
+
+    public static GroupEvent paidChanged(String region, String groupId, String orderId, boolean paid) {
+        return new GroupEvent(region, groupId, PAID_CHANGED, Map.of("id", orderId, "paid", paid));
+    }
+
+    public static GroupEvent deadlineChanged(String region, String groupId, String deadline) {
+        return new GroupEvent(region, groupId, DEADLINE_CHANGED, Map.of("deadline", deadline));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.lunch.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SSE subscribers per group. Every subscriber has a bounded queue of its own, drained by a
+ * small pool of sender threads, so events reach each client in the order they were published
+ * and a slow client neither holds up the order writer nor other clients. A client that falls
+ * queue-size events behind, or whose send has been stuck for send-timeout-ms, is dropped; its
+ * browser reconnects and reloads the group. A stuck send cannot be interrupted and holds its
+ * sender thread until the connection's write timeout, so the pool is sized for that many stuck
+ * clients at once; idle sender threads exit. A client whose connection is gone is dropped on
+ * the next send.
+ */
+@Slf4j
+@Service
+public class GroupEventStream {
+
+    @Value("${sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${sse.queue-size:256}")
+    private int queueSize;
+
+    @Value("${sse.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+
+    public GroupEventStream(@Value("${sse.sender-threads:32}") int senderThreads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "group-events-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.sender = pool;
+    }
+
+    private final class Subscriber {
+        private final String key;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueSize);
+        // Set while a drain task is queued or running, so one thread at a time sends to the client
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Start of the send in progress, 0 when none
+        private volatile long sendingSince;
+        private volatile boolean dropped;
+
+        Subscriber(String key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * A new stream of the group's events; the browser reconnects by itself after the timeout.
+     */
+    public SseEmitter subscribe(String region, String groupId) {
+        String key = key(region, groupId);
+        Subscriber subscriber = new Subscriber(key, new SseEmitter(timeoutMs));
+        subscribers.compute(key, (k, list) -> {
+            List<Subscriber> updated = list != null ? list : new CopyOnWriteArrayList<>();
+            updated.add(subscriber);
+            return updated;
+        });
+        Runnable remove = () -> remove(subscriber);
+        subscriber.emitter.onCompletion(remove);
+        subscriber.emitter.onTimeout(remove);
+        subscriber.emitter.onError(e -> remove.run());
+        return subscriber.emitter;
+    }
+
+    @EventListener
+    public void onGroupEvent(GroupEvent event) {
+        List<Subscriber> list = subscribers.get(key(event.region(), event.groupId()));
+        if (list == null) {
+            return;
+        }
+        for (Subscriber subscriber : list) {
+            enqueue(subscriber, SseEmitter.event().name(event.type()).data(event.data()));
+        }
+    }
+
+    /**
+     * A comment line to every subscriber, so proxies keep idle streams open and closed ones
+     * are noticed; also drops subscribers whose send is stuck.
+     */
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        subscribers.values().forEach(list -> list.forEach(subscriber -> {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutMs) {
+                drop(subscriber, "send stuck for " + (now - since) + " ms");
+            } else {
+                enqueue(subscriber, SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.dropped) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            drop(subscriber, queueSize + " events behind");
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.dropped && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendingSince = System.currentTimeMillis();
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; completing runs the removal callback
+                    subscriber.dropped = true;
+                    subscriber.emitter.completeWithError(e);
+                    return;
+                } finally {
+                    subscriber.sendingSince = 0;
+                }
+            }
+            if (subscriber.dropped) {
+                // Dropped while this thread was sending; only the sending thread can close it
+                subscriber.emitter.complete();
+            }
+        } finally {
+            subscriber.draining.set(false);
+            // An event queued after the last poll but before the flag was cleared
+            if (!subscriber.dropped && !subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+                sender.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    /**
+     * Stops delivering to a subscriber that cannot keep up. Its emitter is closed by the drain
+     * task, not here: closing waits for the send in progress.
+     */
+    private void drop(Subscriber subscriber, String reason) {
+        if (subscriber.dropped) {
+            return;
+        }
+        subscriber.dropped = true;
+        subscriber.queue.clear();
+        remove(subscriber);
+        log.info("[SSE] Dropping slow client of {}: {}", subscriber.key, reason);
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key, (k, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static String key(String region, String groupId) {
+        return region + "|" + groupId;
+    }
+}
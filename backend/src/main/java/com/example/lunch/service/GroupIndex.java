@@ -0,0 +1,131 @@
+package com.example.lunch.service;
+
+import com.example.lunch.model.DiningGroup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The groups of one region as loaded from storage: in sheet order (oldest first), by id, and
+ * by deadline for the open-group checks. Never changed after it is built; any change to the
+ * groups evicts it and the next read loads a new one.
+ */
+public final class GroupIndex {
+
+    private static final AtomicLong LOADS = new AtomicLong();
+
+    // Distinct for every index built since startup
+    private final long version = LOADS.incrementAndGet();
+    private final List<DiningGroup> groups;
+    private final Map<String, DiningGroup> byId;
+    // Groups with a readable deadline, earliest first
+    private final List<DiningGroup> byDeadline;
+    // Newest createdAt first (unreadable ones last), ties by id; the order of history pages
+    private final List<DiningGroup> newestFirst;
+
+    public GroupIndex(List<DiningGroup> groups) {
+        this.groups = Collections.unmodifiableList(new ArrayList<>(groups));
+        this.byId = new HashMap<>(groups.size() * 2);
+        List<DiningGroup> withDeadline = new ArrayList<>(groups.size());
+        for (DiningGroup group : groups) {
+            // Same id twice (hand edits): the first row wins, as the list scan did
+            byId.putIfAbsent(group.getId(), group);
+            if (group.getDeadlineInstant() != null) {
+                withDeadline.add(group);
+            }
+        }
+        withDeadline.sort(Comparator.comparing(DiningGroup::getDeadlineInstant));
+        this.byDeadline = Collections.unmodifiableList(withDeadline);
+        List<DiningGroup> byCreated = new ArrayList<>(groups);
+        byCreated.sort(NEWEST_FIRST);
+        this.newestFirst = Collections.unmodifiableList(byCreated);
+    }
+
+    private static final Comparator<GroupCursor> CURSOR_NEWEST_FIRST = Comparator
+            .comparing(GroupCursor::created)
+            .thenComparing(GroupCursor::id, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .reversed();
+
+    private static final Comparator<DiningGroup> NEWEST_FIRST = Comparator.comparing(GroupCursor::of,
+            CURSOR_NEWEST_FIRST);
+
+    static Instant createdOrMin(DiningGroup group) {
+        Instant created = group.getCreatedInstant();
+        return created != null ? created : Instant.MIN;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<DiningGroup> all() {
+        return groups;
+    }
+
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+
+    public DiningGroup get(String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * The most recently created group, or null.
+     */
+    public DiningGroup latest() {
+        return groups.isEmpty() ? null : groups.get(groups.size() - 1);
+    }
+
+    /**
+     * Up to limit groups, newest first, that come after the cursor (from the start if null).
+     */
+    public Page page(GroupCursor after, int limit) {
+        int from = 0;
+        if (after != null) {
+            int low = 0;
+            int high = newestFirst.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (CURSOR_NEWEST_FIRST.compare(GroupCursor.of(newestFirst.get(mid)), after) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            from = low;
+        }
+        int to = (int) Math.min((long) from + limit, newestFirst.size());
+        GroupCursor next = to < newestFirst.size() ? GroupCursor.of(newestFirst.get(to - 1)) : null;
+        return new Page(newestFirst.subList(from, to), next);
+    }
+
+    /**
+     * next is null on the last page.
+     */
+    public record Page(List<DiningGroup> groups, GroupCursor next) {
+    }
+
+    /**
+     * Groups whose deadline is after now, earliest deadline first.
+     */
+    public List<DiningGroup> openAt(Instant now) {
+        int low = 0;
+        int high = byDeadline.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byDeadline.get(mid).getDeadlineInstant().isAfter(now)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return byDeadline.subList(low, byDeadline.size());
+    }
+}
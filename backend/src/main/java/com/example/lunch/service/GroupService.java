@@ -1,153 +1,134 @@
 package com.example.lunch.service;
 
 import com.example.lunch.config.RegionContext;
+import com.example.lunch.model.DateTimes;
 import com.example.lunch.model.DiningGroup;
-import com.example.lunch.repository.GoogleSheetsRepository;
+import com.example.lunch.model.Order;
+import com.example.lunch.repository.LunchStorage;
+import com.example.lunch.repository.SheetChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-
-import java.util.ArrayList;
-import java.util.Collections;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class GroupService {
 
     @Autowired
-    private GoogleSheetsRepository repository;
+    private LunchStorage storage;
 
-    private static final String RANGE_GROUPS = "Groups!A2:I";
+    @Autowired
+    private GroupCache groupCache;
 
-    @CacheEvict(value = "groups", allEntries = true)
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @CacheEvict(value = "groups", key = "T(com.example.lunch.config.RegionContext).get()")
     public DiningGroup createGroup(String name, String deadline, List<com.example.lunch.model.MenuItem> menu,
             String restaurantName, String menuImageUrl, String note, String restaurantPhone)
             throws IOException {
 
-        // 1. Check for active group overlap
-        List<DiningGroup> existingGroups = getAllGroups();
-        if (!existingGroups.isEmpty()) {
-            DiningGroup lastGroup = existingGroups.get(existingGroups.size() - 1);
-            try {
-                // Parse deadlines which might be in different formats (local vs ISO with
-                // offset)
-                // Try ZonedDateTime first (new format), fall back to LocalDateTime (old format)
-                java.time.ZonedDateTime deadlineTime;
-                try {
-                    deadlineTime = java.time.ZonedDateTime.parse(lastGroup.getDeadline());
-                } catch (java.time.format.DateTimeParseException e) {
-                    // Fallback for old data without timezone
-                    deadlineTime = java.time.LocalDateTime.parse(lastGroup.getDeadline())
-                            .atZone(java.time.ZoneId.of("Asia/Taipei"));
-                }
-
-                if (java.time.ZonedDateTime.now().isBefore(deadlineTime)) {
-                    throw new IOException("目前尚有未結單的團購 (" + lastGroup.getName() + ")，結單時間："
-                            + deadlineTime.toLocalDateTime().toString().replace("T", " ") + "，請勿重複開團！");
-                }
-            } catch (IOException e) {
-                throw e; // Propagate the specific business logic exception
-            } catch (Exception e) {
-                // Log but allow creation if parsing fails widely (safety valve)
-                System.err.println("Failed to check active group overlap: " + e.getMessage());
-            }
+        // 1. Check for active group overlap (groups with an unreadable deadline never block)
+        List<DiningGroup> openGroups = groupCache.index().openAt(java.time.Instant.now());
+        if (!openGroups.isEmpty()) {
+            DiningGroup openGroup = openGroups.get(openGroups.size() - 1);
+            throw new IOException("目前尚有未結單的團購 (" + openGroup.getName() + ")，結單時間："
+                    + openGroup.getDeadlineInstant().atZone(DateTimes.TAIPEI).toLocalDateTime().toString()
+                            .replace("T", " ")
+                    + "，請勿重複開團！");
         }
 
         // Archive old orders before starting a new group
-        repository.archiveOrders();
-
-        DiningGroup group = new DiningGroup(name, deadline);
-        group.setMenu(menu);
-        group.setRestaurantName(restaurantName);
-        group.setMenuImageUrl(menuImageUrl);
-        group.setNote(note);
-        group.setRestaurantPhone(restaurantPhone);
-        group.setRegion(RegionContext.get());
-
-        // Use ArrayList to allow nulls, though Frontend sends default
-        List<Object> row = new ArrayList<>();
-        row.add(group.getId());
-        row.add(group.getName());
-        row.add(group.getDeadline());
-        row.add(group.getCreatedAt());
-        row.add(group.getRestaurantName() != null ? group.getRestaurantName() : "");
-        row.add(group.getMenuImageUrl() != null ? group.getMenuImageUrl() : "");
-        row.add(group.getNote() != null ? group.getNote() : ""); // Note column (G)
-        row.add(group.getRestaurantPhone() != null ? group.getRestaurantPhone() : ""); // Phone column (H)
-        row.add(group.getRegion() != null ? group.getRegion() : "taichung"); // Region column (I)
-
-        repository.appendData(RANGE_GROUPS, Collections.singletonList(row));
+        storage.archiveOrders();
+
+        DiningGroup group = DiningGroup.builder()
+                .id(UUID.randomUUID().toString())
+                .name(name)
+                .deadline(deadline)
+                .createdAt(ZonedDateTime.now(DateTimes.TAIPEI).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
+                .menu(menu)
+                .restaurantName(restaurantName)
+                .menuImageUrl(menuImageUrl)
+                .note(note)
+                .restaurantPhone(restaurantPhone)
+                .region(RegionContext.get())
+                .build();
+
+        storage.saveGroup(group);
 
         if (menu != null && !menu.isEmpty()) {
-            repository.saveMenu(group.getId(), menu);
+            storage.saveMenu(group.getId(), menu);
         }
 
         return group;
     }
 
-    @Cacheable(value = "groups", key = "T(com.example.lunch.config.RegionContext).get()", unless = "#result.isEmpty()")
     public List<DiningGroup> getAllGroups() throws IOException {
-        List<List<Object>> values = repository.readData(RANGE_GROUPS);
-        if (values == null || values.isEmpty()) {
-            return Collections.emptyList();
-        }
+        return groupCache.index().all();
+    }
 
-        return values.stream()
-                .filter(row -> row.size() >= 4)
-                .map(row -> DiningGroup.builder()
-                        .id(row.get(0).toString())
-                        .name(row.get(1).toString())
-                        .deadline(row.get(2).toString())
-                        .createdAt(row.get(3).toString())
-                        .restaurantName(row.size() >= 5 ? row.get(4).toString() : null)
-                        .menuImageUrl(row.size() >= 6 ? row.get(5).toString() : null)
-                        .note(row.size() >= 7 ? row.get(6).toString() : null)
-                        .restaurantPhone(row.size() >= 8 ? formatPhoneNumber(row.get(7)) : null)
-                        .region(row.size() >= 9 ? row.get(8).toString() : "taichung")
-                        .build())
-                .collect(Collectors.toList());
+    /**
+     * The current region's groups with their list version (see {@link GroupVersions#listTag}).
+     */
+    public GroupIndex getGroupIndex() throws IOException {
+        return groupCache.index();
     }
 
-    private String formatPhoneNumber(Object phoneObj) {
-        if (phoneObj == null) {
-            return null;
-        }
-        String phone = phoneObj.toString().trim();
-        // 如果是 9 碼數字 (例如 970093839)，補上開頭的 0
-        if (phone.matches("\\d{9}")) {
-            return "0" + phone;
-        }
-        return phone;
+    /**
+     * The most recently created group of the current region, or null.
+     */
+    public DiningGroup getLatestGroup() throws IOException {
+        return groupCache.index().latest();
     }
 
     public DiningGroup getGroup(String id) throws IOException {
-        DiningGroup group = getAllGroups().stream()
-                .filter(g -> g.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        DiningGroup group = findGroup(id);
+        return group == null ? null : group.toBuilder().menu(storage.findMenu(id)).build();
+    }
 
-        if (group != null) {
-            group.setMenu(repository.getMenu(id));
-        }
-        return group;
+    /**
+     * Group page: the group with its menu, and its orders, both from one storage read.
+     */
+    public GroupPage loadMenuAndOrders(DiningGroup group) throws IOException {
+        LunchStorage.GroupContents contents = storage.findGroupContents(group.getId());
+        return new GroupPage(group.toBuilder().menu(contents.menu()).build(), contents.orders());
+    }
+
+    public record GroupPage(DiningGroup group, List<Order> orders) {
+    }
+
+    /**
+     * The cached group, shared with other requests (groups are immutable), without its menu.
+     */
+    public DiningGroup findGroup(String id) throws IOException {
+        return groupCache.index().get(id);
+    }
+
+    // Groups tab edited by hand in the spreadsheet
+    @EventListener(condition = "#event.sheet() == 'Groups'")
+    @CacheEvict(value = "groups", key = "#event.region()")
+    public void onSheetChanged(SheetChangedEvent event) {
     }
 
-    @CacheEvict(value = "groups", allEntries = true)
+    @CacheEvict(value = "groups", key = "T(com.example.lunch.config.RegionContext).get()")
     public void updateDeadline(String groupId, String newDeadline) throws IOException {
-        repository.updateGroupDeadline(groupId, newDeadline);
+        storage.updateGroupDeadline(groupId, newDeadline);
+        eventPublisher.publishEvent(GroupEvent.deadlineChanged(RegionContext.get(), groupId, newDeadline));
     }
 
     @Autowired(required = false)
     @Lazy
     private com.example.lunch.scheduler.LineNotificationScheduler notificationScheduler;
 
-    @CacheEvict(value = "groups", allEntries = true)
+    @CacheEvict(value = "groups", key = "T(com.example.lunch.config.RegionContext).get()")
     public void quietCloseGroup(String groupId, String newDeadline) throws IOException {
         // Mark as sent in scheduler to prevent notification
         if (notificationScheduler != null) {
@@ -0,0 +1,88 @@
+package com.example.lunch.service;
+
+import com.example.lunch.repository.SheetChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags for the group endpoints. A group's version is dropped on every committed change
+ * (order batches and deadline changes) and on hand edits seen by the mirror; the next read hands out a new
+ * one. Versions also expire after max-age-ms, so edits made in the sheet with the mirror off
+ * show up as they do through the groups cache. The boot epoch keeps tags from an earlier run
+ * from matching after a restart.
+ */
+@Service
+public class GroupVersions {
+
+    @Value("${http.etag.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    private record Version(long value, long since) {
+    }
+
+    /**
+     * The group's current tag. Take it before reading the group, so a change that lands
+     * during the read gives the next request a different tag.
+     */
+    public String groupTag(String region, String groupId) {
+        long now = System.currentTimeMillis();
+        Version version = versions.compute(key(region, groupId), (key, current) ->
+                current == null || now - current.since() >= maxAgeMs
+                        ? new Version(sequence.incrementAndGet(), now)
+                        : current);
+        return tag("g" + version.value());
+    }
+
+    /**
+     * Tag of a group list built from the given index; a new index is loaded after every change.
+     * An empty index is not cached and is reloaded on every request, but its list is always [],
+     * so it has one fixed tag (index versions start at 1).
+     */
+    public String listTag(GroupIndex index) {
+        return tag("l" + (index.isEmpty() ? 0 : index.version()));
+    }
+
+    /**
+     * Drops the group's version; called by the order writer before its callers return.
+     */
+    public void changed(String region, String groupId) {
+        versions.remove(key(region, groupId));
+    }
+
+    // Order changes are dropped by the order writer itself; their events come after the callers
+    // returned and would drop the version those callers just read
+    @EventListener(condition = "#event.type() == T(com.example.lunch.service.GroupEvent).DEADLINE_CHANGED")
+    public void onGroupEvent(GroupEvent event) {
+        changed(event.region(), event.groupId());
+    }
+
+    @EventListener
+    public void onSheetChanged(SheetChangedEvent event) {
+        forgetRegion(event.region());
+    }
+
+    /**
+     * Drops the versions of every group of the region, e.g. after retention deleted some of them.
+     */
+    public void forgetRegion(String region) {
+        String prefix = region + "|";
+        versions.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private String tag(String version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    private static String key(String region, String groupId) {
+        return region + "|" + groupId;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.lunch.service;
 
 import com.example.lunch.model.Order;
-import com.example.lunch.repository.GoogleSheetsRepository;
+import com.example.lunch.model.OrderSummary;
+import com.example.lunch.repository.LunchStorage;
+import com.example.lunch.repository.OrderMutation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
@@ -10,137 +12,33 @@ import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class OrderService {
 
     @Autowired
-    private GoogleSheetsRepository repository;
+    private LunchStorage storage;
 
-    private static final String RANGE_ORDERS = "Orders!A2:K";
-    private static final int QUANTITY_COLUMN_INDEX = 6;
-    private static final int TOTAL_PRICE_COLUMN_INDEX = 7;
+    @Autowired
+    private OrderWriteQueue writeQueue;
+
+    @Autowired
+    private OrderSummaryService summaries;
 
     public Order addOrder(Order order) throws IOException {
         log.info("[ADD_ORDER] Starting - User: {}, Item: {}, GroupId: {}",
                 order.getUserName(), order.getItemName(), order.getGroupId());
 
         try {
-            // Pricing Logic
-            int quantity = (order.getQuantity() == null || order.getQuantity() < 1) ? 1 : order.getQuantity();
-            order.setQuantity(quantity);
-            order.setTotalPrice(order.getBasePrice() * quantity);
-
-            String id = UUID.randomUUID().toString();
-            order.setId(id);
-            order.setPaid(false); // 新訂單預設未收款
-
-            // Use Taiwan timezone
-            ZonedDateTime nowTaipei = ZonedDateTime.now(ZoneId.of("Asia/Taipei"));
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            order.setCreatedAt(nowTaipei.format(formatter));
-
-            log.info("[ADD_ORDER] Order prepared - ID: {}, Total: ${}", id, order.getTotalPrice());
-
-            // Full Rewrite Approach to ensure single TOTAL row and avoid intercalation
-            log.info("[ADD_ORDER] Reading existing orders from Sheets...");
-            List<List<Object>> allRows = repository.readData(RANGE_ORDERS);
-            log.info("[ADD_ORDER] Read {} rows from Sheets", allRows == null ? 0 : allRows.size());
-
-            // Separate orders by group
-            List<List<Object>> currentGroupOrders = new ArrayList<>();
-            List<List<Object>> otherGroupOrders = new ArrayList<>();
-
-            if (allRows != null) {
-                for (List<Object> r : allRows) {
-                    if (r.size() >= 2 && !"TOTAL".equals(r.get(0).toString())) {
-                        String rowGroupId = r.get(1).toString();
-                        if (rowGroupId.equals(order.getGroupId())) {
-                            currentGroupOrders.add(r);
-                        } else {
-                            otherGroupOrders.add(r);
-                        }
-                    }
-                }
-            }
-
-            log.info("[ADD_ORDER] Current group orders: {}, Other group orders: {}",
-                    currentGroupOrders.size(), otherGroupOrders.size());
-
-            // Archive orders from other groups
-            if (!otherGroupOrders.isEmpty()) {
-                log.info("[ADD_ORDER] Archiving {} orders from other groups...", otherGroupOrders.size());
-                repository.appendData("History Orders!A:K", otherGroupOrders);
-                log.info("[ADD_ORDER] Archived old group orders to History Orders");
-            }
-
-            // Add new order to current group
-            List<Object> row = new ArrayList<>();
-            row.add(id);
-            row.add(order.getGroupId());
-            row.add(order.getUserName());
-            row.add(order.getItemName());
-            row.add(order.getBasePrice());
-            row.add(order.getRiceLevel());
-            row.add(order.getQuantity());
-            row.add(order.getTotalPrice());
-            row.add(order.getNote() == null ? "" : order.getNote());
-            row.add(order.getCreatedAt());
-            row.add("false"); // Paid column (K)
-            currentGroupOrders.add(row);
-            log.info("[ADD_ORDER] Added new order. Current group total: {}", currentGroupOrders.size());
-
-            // Added Logic: Sort by Item Name (Index 3)
-            java.text.Collator collator = java.text.Collator.getInstance(java.util.Locale.TAIWAN);
-            currentGroupOrders.sort((o1, o2) -> {
-                String item1 = o1.size() > 3 ? o1.get(3).toString() : "";
-                String item2 = o2.size() > 3 ? o2.get(3).toString() : "";
-                return collator.compare(item1, item2);
-            });
-            log.info("[ADD_ORDER] Sorted {} orders by item name", currentGroupOrders.size());
-
-            // Calculate and add Total Row
-            int totalSum = 0;
-            int totalCount = 0;
-            for (List<Object> r : currentGroupOrders) {
-                if (r.size() > TOTAL_PRICE_COLUMN_INDEX) {
-                    try {
-                        totalSum += Integer.parseInt(r.get(TOTAL_PRICE_COLUMN_INDEX).toString());
-                        totalCount += parseQuantity(r);
-                    } catch (Exception e) {
-                        log.warn("[ADD_ORDER] Failed to parse total for row: {}", r.get(0));
-                    }
-                }
-            }
+            order = prepare(order);
+            log.info("[ADD_ORDER] Order prepared - ID: {}, Total: ${}", order.getId(), order.getTotalPrice());
 
-            List<Object> totalRow = new ArrayList<>();
-            totalRow.add("TOTAL");
-            totalRow.add("");
-            totalRow.add("---");
-            totalRow.add("總計");
-            totalRow.add("");
-            totalRow.add("");
-            totalRow.add(totalCount + " 份");
-            totalRow.add(totalSum);
-            totalRow.add(""); // Note column
-            totalRow.add(""); // CreatedAt column
-            totalRow.add(""); // Paid column
-            currentGroupOrders.add(totalRow);
-            log.info("[ADD_ORDER] Calculated totals - Count: {}, Sum: ${}", totalCount, totalSum);
+            writeQueue.submit(OrderMutation.add(order));
 
-            log.info("[ADD_ORDER] Clearing existing data...");
-            repository.clearData(RANGE_ORDERS);
-
-            log.info("[ADD_ORDER] Writing {} rows back to Sheets...", currentGroupOrders.size());
-            repository.updateData(RANGE_ORDERS, currentGroupOrders);
-
-            log.info("[ADD_ORDER] SUCCESS - Order {} saved for user {}", id, order.getUserName());
+            log.info("[ADD_ORDER] SUCCESS - Order {} saved for user {}", order.getId(), order.getUserName());
             return order;
 
         } catch (Exception e) {
@@ -149,155 +47,52 @@ public class OrderService {
         }
     }
 
-    private static final String RANGE_HISTORY_ORDERS = "History Orders!A2:K";
-
-    public List<Order> getOrdersByGroup(String groupId) throws IOException {
-        List<List<Object>> liveValues = repository.readData(RANGE_ORDERS);
-        List<List<Object>> historyValues = repository.readData(RANGE_HISTORY_ORDERS);
-
-        List<List<Object>> allValues = new ArrayList<>();
-        if (liveValues != null)
-            allValues.addAll(liveValues);
-        if (historyValues != null)
-            allValues.addAll(historyValues);
-
-        if (allValues.isEmpty()) {
-            return Collections.emptyList();
+    /**
+     * Adds several orders with one storage write instead of one per order.
+     */
+    public List<Order> addOrders(List<Order> orders) throws IOException {
+        List<Order> prepared = orders.stream().map(this::prepare).toList();
+        try {
+            writeQueue.submit(prepared.stream().map(OrderMutation::add).toList());
+        } catch (Exception e) {
+            log.error("[ADD_ORDERS] FAILED - {} orders, Error: {}", prepared.size(), e.getMessage(), e);
+            throw e;
         }
-
-        return allValues.stream()
-                .filter(row -> row.size() >= 8 && !row.get(0).toString().equals("TOTAL")
-                        && row.get(1).toString().equals(groupId))
-                .map(row -> Order.builder()
-                        .id(row.get(0).toString())
-                        .groupId(row.get(1).toString())
-                        .userName(row.get(2).toString())
-                        .itemName(row.get(3).toString())
-                        .basePrice(Integer.parseInt(row.get(4).toString()))
-                        .riceLevel(row.get(5).toString())
-                        .quantity(Integer.parseInt(row.get(6).toString()))
-                        .totalPrice(Integer.parseInt(row.get(7).toString()))
-                        .note(row.size() >= 9 ? row.get(8).toString() : "")
-                        .createdAt(row.size() >= 10 ? row.get(9).toString() : "")
-                        .paid(row.size() >= 11 && "true".equalsIgnoreCase(row.get(10).toString()))
-                        .build())
-                .collect(Collectors.toList());
+        log.info("[ADD_ORDERS] SUCCESS - {} orders saved for group {}", prepared.size(),
+                prepared.isEmpty() ? null : prepared.get(0).getGroupId());
+        return prepared;
     }
 
-    public boolean deleteOrder(String groupId, String orderId) throws IOException {
-        List<List<Object>> allRows = repository.readData(RANGE_ORDERS);
-        if (allRows == null || allRows.isEmpty()) {
-            return false;
-        }
-
-        List<List<Object>> remainingRows = new ArrayList<>();
-        boolean found = false;
-
-        for (List<Object> row : allRows) {
-            if (row.size() >= 2 && row.get(0).toString().equals(orderId)
-                    && row.get(1).toString().equals(groupId)) {
-                found = true;
-                continue; // Skip this row (delete it)
-            }
-            if (!"TOTAL".equals(row.get(0).toString())) {
-                remainingRows.add(row);
-            }
-        }
-
-        if (!found) {
-            return false;
-        }
-
-        // Recalculate total
-        int totalSum = 0;
-        int totalCount = 0;
-        for (List<Object> r : remainingRows) {
-            if (r.size() > TOTAL_PRICE_COLUMN_INDEX) {
-                try {
-                    totalSum += Integer.parseInt(r.get(TOTAL_PRICE_COLUMN_INDEX).toString());
-                    totalCount += parseQuantity(r);
-                } catch (Exception e) {
-                }
-            }
-        }
-
-        // Add total row
-        List<Object> totalRow = new ArrayList<>();
-        totalRow.add("TOTAL");
-        totalRow.add("");
-        totalRow.add("---");
-        totalRow.add("總計");
-        totalRow.add("");
-        totalRow.add("");
-        totalRow.add(totalCount + " 份");
-        totalRow.add(totalSum);
-        totalRow.add("");
-        totalRow.add("");
-        totalRow.add("");
-        remainingRows.add(totalRow);
-
-        repository.clearData(RANGE_ORDERS);
-        if (!remainingRows.isEmpty()) {
-            repository.updateData(RANGE_ORDERS, remainingRows);
-        }
-
-        return true;
+    private Order prepare(Order order) {
+        // Pricing Logic
+        int quantity = (order.getQuantity() == null || order.getQuantity() < 1) ? 1 : order.getQuantity();
+
+        // Use Taiwan timezone
+        ZonedDateTime nowTaipei = ZonedDateTime.now(ZoneId.of("Asia/Taipei"));
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        return order.toBuilder()
+                .id(UUID.randomUUID().toString())
+                .quantity(quantity)
+                .totalPrice(order.getBasePrice() * quantity)
+                .paid(false) // 新訂單預設未收款
+                .createdAt(nowTaipei.format(formatter))
+                .build();
     }
 
-    public boolean updatePaymentStatus(String groupId, String orderId, boolean paid) throws IOException {
-        List<List<Object>> allRows = repository.readData(RANGE_ORDERS);
-        int rowIndex = -1;
-        if (allRows != null && !allRows.isEmpty()) {
-            for (int i = 0; i < allRows.size(); i++) {
-                List<Object> row = allRows.get(i);
-                if (row.size() >= 2 && row.get(0).toString().equals(orderId)
-                        && row.get(1).toString().equals(groupId)) {
-                    rowIndex = i + 2; // RANGE_ORDERS starts at A2, so index 0 is row 2
-                    break;
-                }
-            }
-        }
-
-        if (rowIndex != -1) {
-            String updateRange = "Orders!K" + rowIndex;
-            repository.updateData(updateRange,
-                    Collections.singletonList(Collections.singletonList(paid ? "true" : "false")));
-            return true;
-        }
-
-        // Try finding in history orders
-        List<List<Object>> historyRows = repository.readData(RANGE_HISTORY_ORDERS);
-        int historyRowIndex = -1;
-        if (historyRows != null && !historyRows.isEmpty()) {
-            for (int i = 0; i < historyRows.size(); i++) {
-                List<Object> row = historyRows.get(i);
-                if (row.size() >= 2 && row.get(0).toString().equals(orderId)
-                        && row.get(1).toString().equals(groupId)) {
-                    historyRowIndex = i + 2; // RANGE_HISTORY_ORDERS starts at A2
-                    break;
-                }
-            }
-        }
-
-        if (historyRowIndex != -1) {
-            String updateRange = "History Orders!K" + historyRowIndex;
-            repository.updateData(updateRange,
-                    Collections.singletonList(Collections.singletonList(paid ? "true" : "false")));
-            return true;
-        }
+    public List<Order> getOrdersByGroup(String groupId) throws IOException {
+        return storage.findOrdersByGroup(groupId);
+    }
 
-        return false;
+    public OrderSummary getSummary(String groupId) throws IOException {
+        return summaries.summary(groupId);
     }
 
-    private int parseQuantity(List<Object> row) {
-        if (row.size() <= QUANTITY_COLUMN_INDEX) {
-            return 1;
-        }
+    public boolean deleteOrder(String groupId, String orderId) throws IOException {
+        return writeQueue.submit(OrderMutation.delete(groupId, orderId));
+    }
 
-        try {
-            return Integer.parseInt(String.valueOf(row.get(QUANTITY_COLUMN_INDEX)));
-        } catch (Exception e) {
-            return 1;
-        }
+    public boolean updatePaymentStatus(String groupId, String orderId, boolean paid) throws IOException {
+        return writeQueue.submit(OrderMutation.paid(groupId, orderId, paid));
     }
 }
@@ -0,0 +1,175 @@
+package com.example.lunch.service;
+
+import com.example.lunch.config.RegionContext;
+import com.example.lunch.model.OrderSummary;
+import com.example.lunch.repository.LunchStorage;
+import com.example.lunch.repository.OrderMutation;
+import com.example.lunch.repository.SheetChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Order totals per group, loaded from storage and then kept up to date by the order writer.
+ * The storage write runs outside the region's lock; only folding its results into the loaded
+ * tallies takes it. A load that overlapped a write may or may not contain it, so it is served
+ * once but not kept. Tallies are reloaded after max-age-ms, so hand edits and other instances'
+ * writes show up without the mirror. Readers get the summary published after the last batch
+ * and never wait for a write.
+ */
+@Slf4j
+@Service
+public class OrderSummaryService {
+
+    @Value("${orders.summary.max-groups:16}")
+    private int maxGroups;
+
+    @Value("${orders.summary.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    private final LunchStorage storage;
+    private final Map<String, RegionTallies> regions = new ConcurrentHashMap<>();
+
+    public OrderSummaryService(LunchStorage storage) {
+        this.storage = storage;
+    }
+
+    interface BatchWrite {
+        List<Boolean> apply(List<OrderMutation> mutations) throws IOException;
+    }
+
+    private record Published(OrderSummary summary, long loadedAt) {
+    }
+
+    /**
+     * Summary of a group of the current region; the first call for a group, and the first after
+     * max-age-ms, reads its orders.
+     */
+    public OrderSummary summary(String groupId) throws IOException {
+        RegionTallies region = region(RegionContext.get());
+        Published published = region.published.get(groupId);
+        if (published != null && System.currentTimeMillis() - published.loadedAt() < maxAgeMs) {
+            return published.summary();
+        }
+        long epoch;
+        synchronized (region) {
+            epoch = region.epoch;
+        }
+        long loadedAt = System.currentTimeMillis();
+        OrderTally tally = OrderTally.of(groupId, storage.findOrdersByGroup(groupId));
+        synchronized (region) {
+            // Once kept, the tally belongs to the order writer; built here, under the lock
+            OrderSummary summary = tally.summary();
+            // Kept only if no write started or finished while reading
+            if (region.epoch == epoch && epoch % 2 == 0) {
+                region.tallies.put(groupId, new Loaded(tally, loadedAt));
+                region.published.put(groupId, new Published(summary, loadedAt));
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * Writes a batch of the current region and applies the mutations that matched to the loaded
+     * tallies. Batches of a region must not overlap (the order writer is the only caller). If
+     * the write fails, how much of it landed is unknown: the region's tallies are dropped and
+     * reloaded on the next read.
+     */
+    List<Boolean> write(List<OrderMutation> mutations, BatchWrite write) throws IOException {
+        RegionTallies region = region(RegionContext.get());
+        synchronized (region) {
+            region.epoch++; // odd while writing
+        }
+        List<Boolean> results;
+        try {
+            results = write.apply(mutations);
+        } catch (IOException | RuntimeException e) {
+            synchronized (region) {
+                region.clear();
+                region.epoch++;
+            }
+            throw e;
+        }
+        synchronized (region) {
+            Set<String> changed = new HashSet<>();
+            for (int i = 0; i < mutations.size(); i++) {
+                OrderMutation mutation = mutations.get(i);
+                Loaded loaded = region.tallies.get(mutation.groupId());
+                if (loaded == null || !results.get(i)) {
+                    continue;
+                }
+                switch (mutation.type()) {
+                    case ADD -> loaded.tally().add(mutation.order());
+                    case DELETE -> loaded.tally().remove(mutation.orderId());
+                    case PAID -> loaded.tally().paid(mutation.orderId(), mutation.paid());
+                }
+                changed.add(mutation.groupId());
+            }
+            for (String groupId : changed) {
+                Loaded loaded = region.tallies.get(groupId);
+                region.published.put(groupId, new Published(loaded.tally().summary(), loaded.loadedAt()));
+            }
+            region.epoch++;
+            return results;
+        }
+    }
+
+    // Orders edited by hand in the spreadsheet
+    @EventListener(condition = "#event.sheet().contains('Orders')")
+    public void onSheetChanged(SheetChangedEvent event) {
+        forgetRegion(event.region());
+    }
+
+    public void forgetRegion(String region) {
+        RegionTallies tallies = region(region);
+        synchronized (tallies) {
+            tallies.clear();
+            // Loads already running read the old rows; keeps the parity of a running write
+            tallies.epoch += 2;
+        }
+        log.info("[SUMMARY] Dropped order tallies for region={}", region);
+    }
+
+    private RegionTallies region(String region) {
+        return regions.computeIfAbsent(region, key -> new RegionTallies(maxGroups));
+    }
+
+    private record Loaded(OrderTally tally, long loadedAt) {
+    }
+
+    private static final class RegionTallies {
+        // Guarded by the RegionTallies lock; least recently loaded or written group first, old groups fall out
+        private final Map<String, Loaded> tallies;
+        // Written under the lock, read without it
+        private final Map<String, Published> published = new ConcurrentHashMap<>();
+        // Guarded by the lock; bumped when a write starts and when it ends, so odd while one runs
+        private long epoch;
+
+        RegionTallies(int maxGroups) {
+            this.tallies = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Loaded> eldest) {
+                    if (size() > maxGroups) {
+                        published.remove(eldest.getKey());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        void clear() {
+            tallies.clear();
+            published.clear();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.lunch.service;
+
+import com.example.lunch.model.Order;
+import com.example.lunch.model.OrderSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running totals of one group's orders. An add, delete or paid change only adjusts the totals
+ * of that order's line and user, so a summary costs the number of lines and users, not the
+ * number of orders. Not thread-safe; {@link OrderSummaryService} guards it.
+ */
+final class OrderTally {
+
+    private final String groupId;
+    private final Map<String, Order> orders = new HashMap<>();
+    private final Map<String, LineTotal> lines = new TreeMap<>();
+    private final Map<String, UserTotal> users = new LinkedHashMap<>();
+    private int quantity;
+    private int totalAmount;
+    private int paidAmount;
+    // Built on the first read after a change
+    private OrderSummary summary;
+
+    OrderTally(String groupId) {
+        this.groupId = groupId;
+    }
+
+    static OrderTally of(String groupId, List<Order> orders) {
+        OrderTally tally = new OrderTally(groupId);
+        orders.forEach(tally::add);
+        return tally;
+    }
+
+    /**
+     * Adds the order, or replaces the one with the same id.
+     */
+    void add(Order order) {
+        Order previous = orders.put(order.getId(), order);
+        if (previous != null) {
+            count(previous, -1);
+        }
+        count(order, 1);
+        summary = null;
+    }
+
+    void remove(String orderId) {
+        Order order = orders.remove(orderId);
+        if (order != null) {
+            count(order, -1);
+            summary = null;
+        }
+    }
+
+    void paid(String orderId, boolean paid) {
+        Order order = orders.get(orderId);
+        if (order != null && isPaid(order) != paid) {
+            add(order.toBuilder().paid(paid).build());
+        }
+    }
+
+    OrderSummary summary() {
+        if (summary == null) {
+            List<OrderSummary.Line> lineList = new ArrayList<>(lines.size());
+            lines.forEach((label, line) -> lineList.add(line.toLine(label)));
+            List<OrderSummary.UserTotal> userList = new ArrayList<>(users.size());
+            users.forEach((name, user) -> userList.add(
+                    new OrderSummary.UserTotal(name, user.orders, user.quantity, user.amount, user.paidAmount)));
+            summary = new OrderSummary(groupId, orders.size(), quantity, totalAmount, paidAmount,
+                    totalAmount - paidAmount, Collections.unmodifiableList(lineList),
+                    Collections.unmodifiableList(userList));
+        }
+        return summary;
+    }
+
+    private void count(Order order, int sign) {
+        int qty = quantity(order);
+        int amount = order.getTotalPrice() != null ? order.getTotalPrice() : 0;
+        int paid = isPaid(order) ? amount : 0;
+        String userName = order.getUserName() != null ? order.getUserName() : "";
+        quantity += sign * qty;
+        totalAmount += sign * amount;
+        paidAmount += sign * paid;
+
+        String label = label(order);
+        LineTotal line = lines.computeIfAbsent(label, key -> new LineTotal(order));
+        line.count(userName, sign, qty, amount, order.getBasePrice() != null ? order.getBasePrice() : 0);
+        if (line.orders == 0) {
+            lines.remove(label);
+        }
+
+        UserTotal user = users.computeIfAbsent(userName, key -> new UserTotal());
+        user.orders += sign;
+        user.quantity += sign * qty;
+        user.amount += sign * amount;
+        user.paidAmount += sign * paid;
+        if (user.orders == 0) {
+            users.remove(userName);
+        }
+    }
+
+    private static int quantity(Order order) {
+        return order.getQuantity() != null ? order.getQuantity() : 1;
+    }
+
+    private static boolean isPaid(Order order) {
+        return Boolean.TRUE.equals(order.getPaid());
+    }
+
+    /**
+     * 分組 Key (品項 + 飯量 + 備註)
+     */
+    static String label(Order order) {
+        String riceLabel = riceLabel(order.getRiceLevel());
+        String note = order.getNote() != null ? order.getNote().trim() : "";
+
+        StringBuilder sb = new StringBuilder(String.valueOf(order.getItemName()));
+        if (!riceLabel.isEmpty()) {
+            sb.append(" ").append(riceLabel);
+        }
+        if (!note.isEmpty()) {
+            sb.append(" ").append(note);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 將飯量代碼轉換為顯示文字
+     */
+    private static String riceLabel(String riceLevel) {
+        if (riceLevel == null) {
+            return "";
+        }
+        switch (riceLevel) {
+            case "HALF":
+                return "飯半";
+            case "LESS":
+                return "飯少";
+            default:
+                return "";
+        }
+    }
+
+    private static final class LineTotal {
+        private final String itemName;
+        private final String riceLevel;
+        private final String note;
+        // 同品項組價格通常相同; if a menu price changed mid-order, the price most of the line's
+        // orders carry stands for it (the lower one on a tie). Counted, so a removed order's price goes with it
+        private final Map<Integer, Integer> prices = new TreeMap<>();
+        private final Map<String, Integer> users = new LinkedHashMap<>();
+        private int orders;
+        private int quantity;
+        private int amount;
+
+        LineTotal(Order first) {
+            this.itemName = first.getItemName();
+            this.riceLevel = first.getRiceLevel();
+            this.note = first.getNote() != null ? first.getNote().trim() : "";
+        }
+
+        void count(String userName, int sign, int qty, int orderAmount, int basePrice) {
+            orders += sign;
+            if (prices.merge(basePrice, sign, Integer::sum) == 0) {
+                prices.remove(basePrice);
+            }
+            quantity += sign * qty;
+            amount += sign * orderAmount;
+            int left = users.merge(userName, sign * qty, Integer::sum);
+            if (left == 0) {
+                users.remove(userName);
+            }
+        }
+
+        OrderSummary.Line toLine(String label) {
+            int basePrice = 0;
+            int most = 0;
+            for (Map.Entry<Integer, Integer> price : prices.entrySet()) {
+                if (price.getValue() > most) {
+                    basePrice = price.getKey();
+                    most = price.getValue();
+                }
+            }
+            return new OrderSummary.Line(label, itemName, riceLevel, note, basePrice, quantity, amount,
+                    Collections.unmodifiableMap(new LinkedHashMap<>(users)));
+        }
+    }
+
+    private static final class UserTotal {
+        private int orders;
+        private int quantity;
+        private int amount;
+        private int paidAmount;
+    }
+}
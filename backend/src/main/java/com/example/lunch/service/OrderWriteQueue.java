@@ -0,0 +1,207 @@
+package com.example.lunch.service;
+
+import com.example.lunch.config.RegionContext;
+import com.example.lunch.repository.LunchStorage;
+import com.example.lunch.repository.OrderMutation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single writer per region for order mutations. Callers enqueue and wait; the writer
+ * drains whatever has queued up (group commit) and applies it as one storage write, so
+ * concurrent adds and deletes no longer overwrite each other's rows. A batch holds at most
+ * max-batch mutations, except that one submit is never split.
+ */
+@Slf4j
+@Service
+public class OrderWriteQueue {
+
+    @Value("${orders.write-queue.max-batch:100}")
+    private int maxBatch;
+
+    @Value("${orders.write-queue.batch-window-ms:0}")
+    private long batchWindowMs;
+
+    @Value("${orders.write-queue.timeout-ms:90000}")
+    private long timeoutMs;
+
+    private final LunchStorage storage;
+    private final OrderSummaryService summaries;
+    private final GroupVersions groupVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, RegionWriter> writers = new ConcurrentHashMap<>();
+
+    public OrderWriteQueue(LunchStorage storage, OrderSummaryService summaries, GroupVersions groupVersions,
+            ApplicationEventPublisher eventPublisher) {
+        this.storage = storage;
+        this.summaries = summaries;
+        this.groupVersions = groupVersions;
+        this.eventPublisher = eventPublisher;
+    }
+
+    private record Pending(OrderMutation mutation, CompletableFuture<Boolean> result) {
+    }
+
+    /**
+     * Applies the mutations for the current region and waits until their batch is written.
+     * All mutations of one call land in the same batch.
+     */
+    public List<Boolean> submit(List<OrderMutation> mutations) throws IOException {
+        RegionWriter writer = writers.computeIfAbsent(RegionContext.get(), RegionWriter::new);
+        List<Pending> pending = new ArrayList<>();
+        for (OrderMutation mutation : mutations) {
+            pending.add(new Pending(mutation, new CompletableFuture<>()));
+        }
+        writer.queue.add(pending);
+
+        List<Boolean> results = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            for (Pending p : pending) {
+                results.add(p.result().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            // Still queued or being written: the caller cannot tell whether it lands
+            throw new IOException("Order write did not finish within " + timeoutMs + " ms; it may still be applied");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for order write", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+        return results;
+    }
+
+    public boolean submit(OrderMutation mutation) throws IOException {
+        return submit(List.of(mutation)).get(0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.values().forEach(writer -> writer.thread.interrupt());
+    }
+
+    private class RegionWriter implements Runnable {
+        private final String region;
+        private final BlockingQueue<List<Pending>> queue = new LinkedBlockingQueue<>();
+        private final Thread thread;
+
+        RegionWriter(String region) {
+            this.region = region;
+            this.thread = new Thread(this, "order-writer-" + region);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<Pending> carried = null;
+                while (!Thread.currentThread().isInterrupted()) {
+                    List<Pending> batch = new ArrayList<>();
+                    try {
+                        batch.addAll(carried != null ? carried : queue.take());
+                        carried = null;
+                        if (batchWindowMs > 0) {
+                            List<Pending> more = queue.poll(batchWindowMs, TimeUnit.MILLISECONDS);
+                            if (more != null && batch.size() + more.size() > maxBatch) {
+                                carried = more;
+                            } else if (more != null) {
+                                batch.addAll(more);
+                            }
+                        }
+                        // Whole submits only, up to max-batch mutations; this thread is the only taker
+                        while (carried == null) {
+                            List<Pending> next = queue.peek();
+                            if (next == null || batch.size() + next.size() > maxBatch) {
+                                break;
+                            }
+                            batch.addAll(queue.poll());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        fail(batch);
+                        if (carried != null) {
+                            fail(carried);
+                        }
+                        return;
+                    }
+                    apply(batch);
+                }
+            } finally {
+                // A dead writer must not stay registered: the next submit starts a new one
+                writers.remove(region, this);
+                List<List<Pending>> left = new ArrayList<>();
+                queue.drainTo(left);
+                left.forEach(this::fail);
+            }
+        }
+
+        private void fail(List<Pending> pending) {
+            pending.forEach(p -> p.result().completeExceptionally(new IOException("Order writer stopped")));
+        }
+
+        private void apply(List<Pending> batch) {
+            RegionContext.set(region);
+            try {
+                List<OrderMutation> mutations = batch.stream().map(Pending::mutation).toList();
+                List<Boolean> results;
+                try {
+                    results = summaries.write(mutations, storage::applyOrderMutations);
+                } catch (Throwable e) {
+                    log.error("[ORDER_WRITER] region={} batch of {} failed: {}", region, batch.size(), e.toString());
+                    batch.forEach(p -> p.result().completeExceptionally(e));
+                    return;
+                }
+                log.info("[ORDER_WRITER] region={} applied batch of {}", region, batch.size());
+                // Before the callers return, so their next read already gets a new group version
+                for (int i = 0; i < mutations.size(); i++) {
+                    if (results.get(i)) {
+                        groupVersions.changed(region, mutations.get(i).groupId());
+                    }
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result().complete(results.get(i));
+                }
+                // The batch is committed: a failing listener must not turn it into an error
+                for (int i = 0; i < mutations.size(); i++) {
+                    if (results.get(i)) {
+                        try {
+                            eventPublisher.publishEvent(event(mutations.get(i)));
+                        } catch (RuntimeException e) {
+                            log.warn("[ORDER_WRITER] region={} event listener failed: {}", region, e.toString());
+                        }
+                    }
+                }
+            } finally {
+                RegionContext.clear();
+            }
+        }
+
+        private GroupEvent event(OrderMutation mutation) {
+            return switch (mutation.type()) {
+                case ADD -> GroupEvent.orderAdded(region, mutation.order());
+                case DELETE -> GroupEvent.orderRemoved(region, mutation.groupId(), mutation.orderId());
+                case PAID -> GroupEvent.paidChanged(region, mutation.groupId(), mutation.orderId(), mutation.paid());
+            };
+        }
+    }
+}
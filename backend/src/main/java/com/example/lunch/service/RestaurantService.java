@@ -0,0 +1,66 @@
+package com.example.lunch.service;
+
+import com.example.lunch.model.Restaurant;
+import com.example.lunch.repository.LunchStorage;
+import com.example.lunch.repository.SheetChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+@Service
+public class RestaurantService {
+
+    @Autowired
+    private LunchStorage storage;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Parsed restaurant catalog of a region and the ETag of its JSON form.
+     */
+    public record Catalog(List<Restaurant> restaurants, String etag) {
+    }
+
+    /**
+     * Cached per region until a restaurant is saved, so the Restaurants tab is read and every
+     * menu JSON cell parsed once, not on each visit of the home page.
+     */
+    @Cacheable(value = "restaurants", key = "T(com.example.lunch.config.RegionContext).get()", unless = "#result.restaurants().isEmpty()")
+    public Catalog getCatalog() {
+        List<Restaurant> restaurants = List.copyOf(storage.findAllRestaurants());
+        return new Catalog(restaurants, etagOf(restaurants));
+    }
+
+    @CacheEvict(value = "restaurants", key = "T(com.example.lunch.config.RegionContext).get()")
+    public Restaurant saveRestaurant(Restaurant restaurant) throws IOException {
+        storage.saveRestaurant(restaurant);
+        return restaurant;
+    }
+
+    // Restaurants tab edited by hand in the spreadsheet
+    @EventListener(condition = "#event.sheet() == 'Restaurants'")
+    @CacheEvict(value = "restaurants", key = "#event.region()")
+    public void onSheetChanged(SheetChangedEvent event) {
+    }
+
+    private String etagOf(List<Restaurant> restaurants) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(restaurants).getBytes(StandardCharsets.UTF_8);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to compute restaurant catalog ETag", e);
+        }
+    }
+}
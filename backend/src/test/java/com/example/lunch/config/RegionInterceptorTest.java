@@ -0,0 +1,48 @@
+package com.example.lunch.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegionInterceptorTest {
+
+    private final RegionInterceptor interceptor = new RegionInterceptor();
+
+    @AfterEach
+    void clear() {
+        RegionContext.clear();
+    }
+
+    @Test
+    void theHeaderSelectsTheRegion() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/groups");
+        request.addHeader("X-Region", "taipei");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertThat(RegionContext.get()).isEqualTo("taipei");
+    }
+
+    @Test
+    void theEventStreamTakesTheRegionFromTheQuery() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/groups/g1/events");
+        request.setParameter("region", "taipei");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertThat(RegionContext.get()).isEqualTo("taipei");
+    }
+
+    @Test
+    void otherEndpointsIgnoreTheQuery() {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/groups/g1/orders/o1");
+        request.setParameter("region", "taipei");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertThat(RegionContext.get()).isEqualTo("taichung");
+    }
+}
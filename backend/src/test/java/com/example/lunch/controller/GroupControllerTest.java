@@ -0,0 +1,79 @@
+package com.example.lunch.controller;
+
+import com.example.lunch.model.DiningGroup;
+import com.example.lunch.service.GroupIndex;
+import com.example.lunch.service.GroupService;
+import com.example.lunch.service.GroupVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GroupControllerTest {
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        GroupService groupService = mock(GroupService.class);
+        when(groupService.getGroupIndex()).thenReturn(new GroupIndex(List.of(
+                group("a", "2026-10-13 11:00:00"),
+                group("b", "2026-10-14 11:00:00"),
+                group("c", "2026-10-15 11:00:00"))));
+        GroupController controller = new GroupController();
+        ReflectionTestUtils.setField(controller, "groupService", groupService);
+        ReflectionTestUtils.setField(controller, "groupVersions", new GroupVersions());
+        ReflectionTestUtils.setField(controller, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(controller, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(controller, "maxPageSize", 200);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void pagesCarryTheNextCursorUntilTheLastOne() throws Exception {
+        MvcResult first = mvc.perform(get("/api/groups").param("limit", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains("c", "b")))
+                .andExpect(header().exists(GroupController.NEXT_CURSOR_HEADER));
+
+        String cursor = first.getResponse().getHeader(GroupController.NEXT_CURSOR_HEADER);
+        MvcResult last = mvc.perform(get("/api/groups").param("limit", "2").param("cursor", cursor))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(last))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains("a")))
+                .andExpect(header().doesNotExist(GroupController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void aMalformedCursorIsABadRequest() throws Exception {
+        for (String cursor : List.of("not a cursor!", "a", "eWVzdGVyZGF5fGcx", "")) {
+            mvc.perform(get("/api/groups").param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private static DiningGroup group(String id, String createdAt) {
+        return DiningGroup.builder().id(id).name(id).createdAt(createdAt).deadline("2026-10-14 12:00:00")
+                .region("taichung").build();
+    }
+}
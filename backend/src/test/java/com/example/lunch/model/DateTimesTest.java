@@ -0,0 +1,67 @@
+package com.example.lunch.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateTimesTest {
+
+    // 2026-10-14 11:30 in Taipei
+    private static final Instant LUNCH = Instant.parse("2026-10-14T03:30:00Z");
+
+    @Test
+    void isoWithOffset() {
+        assertThat(DateTimes.parse("2026-10-14T11:30:00+08:00")).isEqualTo(LUNCH);
+        assertThat(DateTimes.parse("2026-10-14T02:30:00-01:00")).isEqualTo(LUNCH);
+    }
+
+    @Test
+    void isoInUtc() {
+        assertThat(DateTimes.parse("2026-10-14T03:30:00Z")).isEqualTo(LUNCH);
+        assertThat(DateTimes.parse("2026-10-14T03:30:00.250Z")).isEqualTo(LUNCH.plusMillis(250));
+    }
+
+    @Test
+    void isoWithOffsetAndZone() {
+        assertThat(DateTimes.parse("2026-10-14T11:30:00+08:00[Asia/Taipei]")).isEqualTo(LUNCH);
+    }
+
+    @Test
+    void isoLocalFromTheDatetimeInputIsTaipeiTime() {
+        assertThat(DateTimes.parse("2026-10-14T11:30")).isEqualTo(LUNCH);
+        assertThat(DateTimes.parse("2026-10-14T11:30:00")).isEqualTo(LUNCH);
+    }
+
+    @Test
+    void theAppsOwnFormatIsTaipeiTime() {
+        assertThat(DateTimes.parse("2026-10-14 11:30:00")).isEqualTo(LUNCH);
+        assertThat(DateTimes.parse(" 2026-10-14 11:30:00 ")).isEqualTo(LUNCH);
+    }
+
+    @Test
+    void aPlainDateIsTaipeiMidnight() {
+        assertThat(DateTimes.parse("2026-10-14")).isEqualTo(Instant.parse("2026-10-13T16:00:00Z"));
+    }
+
+    @Test
+    void blankInputIsNull() {
+        assertThat(DateTimes.parse(null)).isNull();
+        assertThat(DateTimes.parse("")).isNull();
+        assertThat(DateTimes.parse("   ")).isNull();
+    }
+
+    @Test
+    void garbageIsNullWithoutThrowing() {
+        assertThat(DateTimes.parse("tomorrow")).isNull();
+        assertThat(DateTimes.parse("2026/10/14 11:30")).isNull();
+        assertThat(DateTimes.parse("2026-02-30")).isNull();
+        assertThat(DateTimes.parse("2026-10-14 25:00:00")).isNull();
+        assertThat(DateTimes.parse("2026-10-14T11:3")).isNull();
+        assertThat(DateTimes.parse("2026-10-14T11:30:00+8")).isNull();
+        assertThat(DateTimes.parse("2026-10-14T11:30:00+19:00")).isNull();
+        assertThat(DateTimes.parse("2026-10-14T11:30:00Z[Asia/Taipei")).isNull();
+        assertThat(DateTimes.parse("2026-10-14T11:30:00 PM")).isNull();
+    }
+}
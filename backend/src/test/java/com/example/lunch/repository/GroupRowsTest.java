@@ -0,0 +1,39 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.model.DiningGroup;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupRowsTest {
+
+    @Test
+    void decodesAnUnformattedRow() {
+        List<Object> row = new ArrayList<>(List.of("g1", "午餐", "2026-10-14T11:30", "2026-10-14 09:00:00", "池上便當",
+                "", "", new BigDecimal("970093839"), "taipei"));
+
+        DiningGroup group = GroupRows.decode(row);
+
+        assertThat(group.getRestaurantPhone()).isEqualTo("0970093839");
+        assertThat(group.getRegion()).isEqualTo("taipei");
+        assertThat(group.getDeadlineInstant()).isNotNull();
+        assertThat(group.getCreatedInstant()).isNotNull();
+    }
+
+    @Test
+    void aRowWrittenBeforeTheLaterColumnsDecodes() {
+        List<Object> row = new ArrayList<>(List.of("g1", "午餐", "2026-10-14T11:30", "2026-10-14 09:00:00"));
+
+        DiningGroup group = GroupRows.decode(row);
+
+        assertThat(GroupRows.isGroup(row)).isTrue();
+        assertThat(group.getRestaurantName()).isNull();
+        assertThat(group.getRestaurantPhone()).isNull();
+        assertThat(group.getRegion()).isEqualTo("taichung");
+        assertThat(GroupRows.isGroup(new ArrayList<>(List.of("g1", "午餐")))).isFalse();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.model.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class OrderJournalTest {
+
+    private static final String GROUP = "g1";
+
+    @TempDir
+    Path dir;
+
+    private OrderJournal journal;
+
+    @AfterEach
+    void closeJournal() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void tornTailIsCutOffOnRecovery() throws IOException {
+        start();
+        journal.append(List.of(order("o1")));
+        restart();
+        long intact = Files.size(log());
+        Files.writeString(log(), "{\"seq\":2,\"order\":{\"id\":\"o2\",\"gro", StandardOpenOption.APPEND);
+
+        restart();
+
+        assertThat(pendingIds()).containsExactly("o1");
+        assertThat(Files.size(log())).isEqualTo(intact);
+    }
+
+    @Test
+    void appendAfterTornTailSurvivesTheNextRestart() throws IOException {
+        start();
+        journal.append(List.of(order("o1")));
+        restart();
+        Files.writeString(log(), "{\"seq\":2,\"order\":{\"id\":\"o2\",\"gro", StandardOpenOption.APPEND);
+
+        restart();
+        journal.append(List.of(order("o3"), order("o4")));
+        restart();
+
+        assertThat(pendingIds()).containsExactly("o1", "o3", "o4");
+    }
+
+    @Test
+    void corruptEntryBeforeTheLastOneFailsRecovery() throws IOException {
+        start();
+        journal.append(List.of(order("o1")));
+        restart();
+        Files.writeString(log(), "not json\n", StandardOpenOption.APPEND);
+        journal.append(List.of(order("o2")));
+        journal.close();
+        journal = null;
+
+        assertThatThrownBy(this::start).isInstanceOf(IOException.class).hasMessageContaining("Corrupt entry");
+    }
+
+    @Test
+    void emptyCheckpointReplaysTheLog() throws IOException {
+        start();
+        journal.append(List.of(order("o1")));
+        journal.close();
+        Files.writeString(dir.resolve("orders-taichung.checkpoint"), "", StandardCharsets.UTF_8);
+
+        start();
+
+        assertThat(pendingIds()).containsExactly("o1");
+    }
+
+    private void start() throws IOException {
+        journal = new OrderJournal(mock(SheetsLunchStorage.class));
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "journalPath", dir.toString());
+        journal.recover();
+    }
+
+    private void restart() throws IOException {
+        journal.close();
+        start();
+    }
+
+    private Path log() {
+        return dir.resolve("orders-taichung.log");
+    }
+
+    private List<String> pendingIds() {
+        return journal.pendingOrders(GROUP).stream().map(Order::getId).toList();
+    }
+
+    private static Order order(String id) {
+        return Order.builder().id(id).groupId(GROUP).userName("u").itemName("滷肉飯").basePrice(60)
+                .quantity(1).totalPrice(60).paid(false).build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.lunch.repository;
+
+import com.example.lunch.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderRowsTest {
+
+    @Test
+    void decodesAnUnformattedRow() {
+        List<Object> row = new ArrayList<>(List.of("o1", "g1", "阿明", "滷肉飯", new BigDecimal("60"), "LESS",
+                new BigDecimal("2"), new BigDecimal("120"), "不要辣", "2026-10-14 11:30:00", Boolean.TRUE));
+
+        Order order = OrderRows.decode(row);
+
+        assertThat(order.getId()).isEqualTo("o1");
+        assertThat(order.getGroupId()).isEqualTo("g1");
+        assertThat(order.getBasePrice()).isEqualTo(60);
+        assertThat(order.getQuantity()).isEqualTo(2);
+        assertThat(order.getTotalPrice()).isEqualTo(120);
+        assertThat(order.getPaid()).isTrue();
+        assertThat(order.getCreatedInstant()).isNotNull();
+    }
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        Order order = Order.builder().id("o1").groupId("g1").userName("阿明").itemName("滷肉飯").basePrice(60)
+                .riceLevel("HALF").quantity(1).totalPrice(60).note("").createdAt("2026-10-14 11:30:00")
+                .paid(false).build();
+
+        assertThat(OrderRows.decode(OrderRows.encode(order))).isEqualTo(order);
+    }
+
+    @Test
+    void aShortRowDecodesWithDefaults() {
+        Order order = OrderRows.decode(new ArrayList<>(List.of("o1", "g1", "阿明", "滷肉飯", "60")));
+
+        assertThat(order.getBasePrice()).isEqualTo(60);
+        assertThat(order.getRiceLevel()).isEmpty();
+        assertThat(order.getQuantity()).isZero();
+        assertThat(order.getTotalPrice()).isZero();
+        assertThat(order.getNote()).isEmpty();
+        assertThat(order.getCreatedInstant()).isNull();
+        assertThat(order.getPaid()).isFalse();
+        assertThat(OrderRows.quantity(new ArrayList<>(List.of("o1", "g1")))).isEqualTo(1);
+    }
+
+    @Test
+    void onlyOrderRowsAreOrders() {
+        assertThat(OrderRows.isOrder(new ArrayList<>(List.of("o1", "g1")))).isTrue();
+        assertThat(OrderRows.isOrder(OrderRows.totalRow(3, 180))).isFalse();
+        assertThat(OrderRows.isOrder(OrderRows.blankRow())).isFalse();
+        assertThat(OrderRows.isOrder(new ArrayList<>(List.of("stray")))).isFalse();
+        assertThat(OrderRows.isOrder(new ArrayList<>())).isFalse();
+        assertThat(OrderRows.totalPrice(OrderRows.totalRow(3, 180))).isEqualTo(180);
+    }
+
+    @Test
+    void blankRowsHaveNoContent() {
+        assertThat(OrderRows.isBlank(OrderRows.blankRow())).isTrue();
+        assertThat(OrderRows.isBlank(new ArrayList<>())).isTrue();
+        assertThat(OrderRows.isBlank(new ArrayList<>(List.of("", " ")))).isTrue();
+        assertThat(OrderRows.isBlank(new ArrayList<>(List.of("", Boolean.FALSE)))).isFalse();
+        assertThat(OrderRows.isBlank(OrderRows.totalRow(0, 0))).isFalse();
+    }
+
+    @Test
+    void withPaidPadsShortRows() {
+        List<Object> row = OrderRows.withPaid(new ArrayList<>(List.of("o1", "g1")), true);
+
+        assertThat(row).hasSize(OrderRows.WIDTH);
+        assertThat(SheetCells.bool(row, OrderRows.PAID)).isTrue();
+    }
+}
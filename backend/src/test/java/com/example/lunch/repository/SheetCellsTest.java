@@ -0,0 +1,80 @@
+package com.example.lunch.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SheetCellsTest {
+
+    @Test
+    void numericCellsReadAsIntegersAndPlainText() {
+        List<Object> row = row(new BigDecimal("60"), new BigDecimal("60.0"), new BigDecimal("1E+3"), 85, "120");
+
+        assertThat(SheetCells.integer(row, 0, -1)).isEqualTo(60);
+        assertThat(SheetCells.integer(row, 1, -1)).isEqualTo(60);
+        assertThat(SheetCells.integer(row, 3, -1)).isEqualTo(85);
+        assertThat(SheetCells.integer(row, 4, -1)).isEqualTo(120);
+        assertThat(SheetCells.text(row, 1)).isEqualTo("60");
+        assertThat(SheetCells.text(row, 2)).isEqualTo("1000");
+    }
+
+    @Test
+    void malformedNumbersFallBack() {
+        List<Object> row = row("六十", "", " 60 ", "-5", "12345678901", "-");
+
+        assertThat(SheetCells.integer(row, 0, -1)).isEqualTo(-1);
+        assertThat(SheetCells.integer(row, 1, -1)).isEqualTo(-1);
+        assertThat(SheetCells.integer(row, 2, -1)).isEqualTo(60);
+        assertThat(SheetCells.integer(row, 3, -1)).isEqualTo(-5);
+        assertThat(SheetCells.integer(row, 4, -1)).isEqualTo(-1);
+        assertThat(SheetCells.integer(row, 5, -1)).isEqualTo(-1);
+    }
+
+    @Test
+    void booleanCellsAndTheirTextForms() {
+        List<Object> row = row(Boolean.TRUE, Boolean.FALSE, "TRUE", "true ", "FALSE", "yes", "");
+
+        assertThat(SheetCells.bool(row, 0)).isTrue();
+        assertThat(SheetCells.bool(row, 1)).isFalse();
+        assertThat(SheetCells.bool(row, 2)).isTrue();
+        assertThat(SheetCells.bool(row, 3)).isTrue();
+        assertThat(SheetCells.bool(row, 4)).isFalse();
+        assertThat(SheetCells.bool(row, 5)).isFalse();
+        assertThat(SheetCells.bool(row, 6)).isFalse();
+        assertThat(SheetCells.text(row, 0)).isEqualTo("true");
+    }
+
+    @Test
+    void aPhoneStoredAsANumberGetsItsLeadingZeroBack() {
+        List<Object> row = row(new BigDecimal("970093839"), "0970093839", "04-2222-3333", "12345", "");
+
+        assertThat(SheetCells.phone(row, 0)).isEqualTo("0970093839");
+        assertThat(SheetCells.phone(row, 1)).isEqualTo("0970093839");
+        assertThat(SheetCells.phone(row, 2)).isEqualTo("04-2222-3333");
+        assertThat(SheetCells.phone(row, 3)).isEqualTo("12345");
+        assertThat(SheetCells.phone(row, 4)).isEmpty();
+    }
+
+    @Test
+    void shortRowsFallBack() {
+        List<Object> row = row("a", null);
+
+        assertThat(SheetCells.has(row, 1)).isFalse();
+        assertThat(SheetCells.text(row, 1)).isEmpty();
+        assertThat(SheetCells.text(row, 5)).isEmpty();
+        assertThat(SheetCells.textOrNull(row, 1)).isEmpty();
+        assertThat(SheetCells.textOrNull(row, 5)).isNull();
+        assertThat(SheetCells.integer(row, 5, 7)).isEqualTo(7);
+        assertThat(SheetCells.bool(row, 5)).isFalse();
+        assertThat(SheetCells.phone(row, 5)).isNull();
+    }
+
+    private static List<Object> row(Object... cells) {
+        return new ArrayList<>(Arrays.asList(cells));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.lunch.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SheetsLunchStorageTest {
+
+    private static final ZonedDateTime CUTOFF = ZonedDateTime.parse("2026-10-01T00:00:00+08:00[Asia/Taipei]");
+
+    private final GoogleSheetsRepository repository = mock(GoogleSheetsRepository.class);
+    private final SheetsLunchStorage storage = new SheetsLunchStorage(repository);
+
+    @Test
+    void retentionDropsRowsBlankedByIncrementalDeletes() throws IOException {
+        List<List<Object>> groups = rows(List.of("g1", "午餐", "2026-10-14 12:00:00", "2026-10-14 09:00:00"));
+        List<List<Object>> orders = rows(
+                order("o1", "2026-10-14 11:00:00"),
+                List.of(),
+                OrderRows.blankRow(),
+                order("o2", "2026-10-14 11:05:00"),
+                order("old", "2026-09-01 11:00:00"),
+                OrderRows.totalRow(3, 180));
+        when(repository.listSheets()).thenReturn(Set.of());
+        when(repository.readRanges(anyList())).thenReturn(List.of(groups));
+        when(repository.readRangesForWrite(anyList())).thenReturn(List.of(groups, rows(), orders));
+
+        storage.deleteDataBefore(CUTOFF);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<List<Object>>> written = ArgumentCaptor.forClass(List.class);
+        verify(repository).updateData(eq("Orders!A2:K"), written.capture());
+        assertThat(written.getValue()).extracting(OrderRows::id).containsExactly("o1", "o2", OrderRows.TOTAL_ID);
+    }
+
+    @SafeVarargs
+    private static List<List<Object>> rows(List<Object>... rows) {
+        List<List<Object>> output = new ArrayList<>();
+        for (List<Object> row : rows) {
+            output.add(new ArrayList<>(row));
+        }
+        return output;
+    }
+
+    private static List<Object> order(String id, String createdAt) {
+        return List.of(id, "g1", "阿明", "滷肉飯", 60, "", 1, 60, "", createdAt, false);
+    }
+}
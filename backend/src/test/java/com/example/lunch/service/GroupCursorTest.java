@@ -0,0 +1,42 @@
+package com.example.lunch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupCursorTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        GroupCursor cursor = new GroupCursor(Instant.parse("2026-10-14T03:00:00Z"), "a|b");
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(GroupCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void aGroupWithoutCreatedAtRoundTrips() {
+        GroupCursor cursor = new GroupCursor(Instant.MIN, "x");
+
+        assertThat(GroupCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void malformedTokensDecodeToNull() {
+        assertThat(GroupCursor.decode("")).isNull();
+        assertThat(GroupCursor.decode("not a token!")).isNull();
+        assertThat(GroupCursor.decode("a")).isNull();
+        assertThat(GroupCursor.decode(token("no separator"))).isNull();
+        assertThat(GroupCursor.decode(token("yesterday|g1"))).isNull();
+    }
+
+    private static String token(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
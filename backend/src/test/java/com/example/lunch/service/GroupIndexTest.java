@@ -0,0 +1,92 @@
+package com.example.lunch.service;
+
+import com.example.lunch.model.DiningGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupIndexTest {
+
+    @Test
+    void groupsCreatedAtTheSameTimeArePagedByIdWithoutGapsOrRepeats() {
+        GroupIndex index = new GroupIndex(List.of(
+                group("a", "2026-10-14 11:00:00"),
+                group("c", "2026-10-14 11:00:00"),
+                group("b", "2026-10-14 11:00:00"),
+                group("d", "2026-10-15 11:00:00")));
+
+        assertThat(ids(pages(index, 2))).containsExactly("d", "c", "b", "a");
+        assertThat(ids(pages(index, 1))).containsExactly("d", "c", "b", "a");
+    }
+
+    @Test
+    void aCursorAtADeletedGroupContinuesAfterItsPlace() {
+        GroupIndex before = new GroupIndex(List.of(
+                group("a", "2026-10-12 11:00:00"),
+                group("b", "2026-10-13 11:00:00"),
+                group("c", "2026-10-14 11:00:00"),
+                group("d", "2026-10-15 11:00:00")));
+        GroupCursor next = before.page(null, 2).next();
+        assertThat(next.id()).isEqualTo("c");
+
+        GroupIndex after = new GroupIndex(List.of(
+                group("a", "2026-10-12 11:00:00"),
+                group("b", "2026-10-13 11:00:00"),
+                group("d", "2026-10-15 11:00:00")));
+
+        assertThat(ids(after.page(next, 2).groups())).containsExactly("b", "a");
+    }
+
+    @Test
+    void theLastPageHasNoNextCursor() {
+        GroupIndex index = new GroupIndex(List.of(
+                group("a", "2026-10-13 11:00:00"),
+                group("b", "2026-10-14 11:00:00"),
+                group("c", "2026-10-15 11:00:00")));
+
+        GroupIndex.Page first = index.page(null, 2);
+        GroupIndex.Page last = index.page(first.next(), 2);
+
+        assertThat(first.next()).isNotNull();
+        assertThat(ids(last.groups())).containsExactly("a");
+        assertThat(last.next()).isNull();
+        // A page that ends exactly at the last group is the last page too
+        assertThat(index.page(null, 3).next()).isNull();
+        assertThat(index.page(new GroupCursor(GroupIndex.createdOrMin(group("a", "2026-10-13 11:00:00")), "a"), 2)
+                .groups()).isEmpty();
+    }
+
+    @Test
+    void groupsWithoutAReadableCreatedAtComeLast() {
+        GroupIndex index = new GroupIndex(List.of(
+                group("x", "garbage"),
+                group("a", "2026-10-13 11:00:00"),
+                group("y", null)));
+
+        assertThat(ids(pages(index, 1))).containsExactly("a", "y", "x");
+    }
+
+    // Every group, walking the pages with the cursor each one hands back (and through its token)
+    private static List<DiningGroup> pages(GroupIndex index, int limit) {
+        List<DiningGroup> all = new ArrayList<>();
+        GroupCursor cursor = null;
+        do {
+            GroupIndex.Page page = index.page(cursor, limit);
+            all.addAll(page.groups());
+            cursor = page.next() != null ? GroupCursor.decode(page.next().encode()) : null;
+        } while (cursor != null);
+        return all;
+    }
+
+    private static List<String> ids(List<DiningGroup> groups) {
+        return groups.stream().map(DiningGroup::getId).toList();
+    }
+
+    private static DiningGroup group(String id, String createdAt) {
+        return DiningGroup.builder().id(id).name(id).createdAt(createdAt).deadline("2026-10-14 12:00:00")
+                .region("taichung").build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.lunch.service;
+
+import com.example.lunch.model.Order;
+import com.example.lunch.model.OrderSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderTallyTest {
+
+    private static final String GROUP = "g1";
+
+    @Test
+    void addCountsLinesUsersAndTotals() {
+        OrderTally tally = OrderTally.of(GROUP, List.of(
+                order("o1", "阿明", "滷肉飯", 60, "LESS", 2, false),
+                order("o2", "小華", "滷肉飯", 60, "LESS", 1, true),
+                order("o3", "阿明", "雞腿飯", 100, null, 1, false)));
+
+        OrderSummary summary = tally.summary();
+
+        assertThat(summary.orderCount()).isEqualTo(3);
+        assertThat(summary.quantity()).isEqualTo(4);
+        assertThat(summary.totalAmount()).isEqualTo(280);
+        assertThat(summary.paidAmount()).isEqualTo(60);
+        assertThat(summary.unpaidAmount()).isEqualTo(220);
+        assertThat(summary.lines()).extracting(OrderSummary.Line::label).containsExactly("滷肉飯 飯少", "雞腿飯");
+        OrderSummary.Line rice = summary.lines().get(0);
+        assertThat(rice.quantity()).isEqualTo(3);
+        assertThat(rice.amount()).isEqualTo(180);
+        assertThat(rice.basePrice()).isEqualTo(60);
+        assertThat(rice.users()).containsExactly(Map.entry("阿明", 2), Map.entry("小華", 1));
+        assertThat(summary.users()).containsExactly(
+                new OrderSummary.UserTotal("阿明", 2, 3, 220, 0),
+                new OrderSummary.UserTotal("小華", 1, 1, 60, 60));
+    }
+
+    @Test
+    void addWithTheSameIdReplacesTheOrder() {
+        OrderTally tally = OrderTally.of(GROUP, List.of(order("o1", "阿明", "滷肉飯", 60, null, 1, false)));
+        tally.summary();
+
+        tally.add(order("o1", "阿明", "雞腿飯", 100, null, 2, false));
+
+        OrderSummary summary = tally.summary();
+        assertThat(summary.orderCount()).isEqualTo(1);
+        assertThat(summary.quantity()).isEqualTo(2);
+        assertThat(summary.totalAmount()).isEqualTo(200);
+        assertThat(summary.lines()).extracting(OrderSummary.Line::label).containsExactly("雞腿飯");
+        assertThat(summary.users()).containsExactly(new OrderSummary.UserTotal("阿明", 1, 2, 200, 0));
+    }
+
+    @Test
+    void removeDropsEmptyLinesAndUsers() {
+        OrderTally tally = OrderTally.of(GROUP, List.of(
+                order("o1", "阿明", "滷肉飯", 60, null, 1, true),
+                order("o2", "小華", "雞腿飯", 100, null, 1, false)));
+
+        tally.remove("o1");
+        tally.remove("missing");
+
+        OrderSummary summary = tally.summary();
+        assertThat(summary.orderCount()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(100);
+        assertThat(summary.paidAmount()).isZero();
+        assertThat(summary.lines()).extracting(OrderSummary.Line::label).containsExactly("雞腿飯");
+        assertThat(summary.users()).extracting(OrderSummary.UserTotal::userName).containsExactly("小華");
+    }
+
+    @Test
+    void paidToggleMovesTheAmountBetweenPaidAndUnpaid() {
+        OrderTally tally = OrderTally.of(GROUP, List.of(
+                order("o1", "阿明", "滷肉飯", 60, null, 1, false),
+                order("o2", "阿明", "雞腿飯", 100, null, 1, false)));
+
+        tally.paid("o2", true);
+        OrderSummary paid = tally.summary();
+        tally.paid("o2", false);
+        OrderSummary unpaid = tally.summary();
+
+        assertThat(paid.paidAmount()).isEqualTo(100);
+        assertThat(paid.unpaidAmount()).isEqualTo(60);
+        assertThat(paid.users()).containsExactly(new OrderSummary.UserTotal("阿明", 2, 2, 160, 100));
+        assertThat(paid.lines()).extracting(OrderSummary.Line::label).containsExactly("滷肉飯", "雞腿飯");
+        assertThat(unpaid.paidAmount()).isZero();
+        assertThat(unpaid.users()).containsExactly(new OrderSummary.UserTotal("阿明", 2, 2, 160, 0));
+    }
+
+    @Test
+    void linePriceFollowsTheOrdersStillOnIt() {
+        OrderTally tally = OrderTally.of(GROUP, List.of(
+                order("o1", "阿明", "滷肉飯", 50, null, 1, false),
+                order("o2", "小華", "滷肉飯", 60, null, 1, false),
+                order("o3", "小美", "滷肉飯", 60, null, 1, false)));
+        assertThat(tally.summary().lines().get(0).basePrice()).isEqualTo(60);
+
+        tally.remove("o2");
+        assertThat(tally.summary().lines().get(0).basePrice()).isEqualTo(50);
+
+        tally.add(order("o1", "阿明", "滷肉飯", 60, null, 1, false));
+        assertThat(tally.summary().lines().get(0).basePrice()).isEqualTo(60);
+    }
+
+    private static Order order(String id, String userName, String itemName, int basePrice, String riceLevel,
+            int quantity, boolean paid) {
+        return Order.builder().id(id).groupId(GROUP).userName(userName).itemName(itemName).basePrice(basePrice)
+                .riceLevel(riceLevel).quantity(quantity).totalPrice(basePrice * quantity).paid(paid).build();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.lunch.service;
+
+import com.example.lunch.model.Order;
+import com.example.lunch.repository.LunchStorage;
+import com.example.lunch.repository.OrderMutation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderWriteQueueTest {
+
+    private static final String REGION = "taichung";
+    private static final String GROUP = "g1";
+
+    private final LunchStorage storage = mock(LunchStorage.class);
+    private final GroupVersions groupVersions = new GroupVersions();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    // Every batch handed to storage, in order
+    private final List<List<OrderMutation>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+    private OrderWriteQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        OrderSummaryService summaries = new OrderSummaryService(storage);
+        ReflectionTestUtils.setField(summaries, "maxGroups", 16);
+        ReflectionTestUtils.setField(groupVersions, "maxAgeMs", 60_000L);
+        queue = new OrderWriteQueue(storage, summaries, groupVersions, mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(queue, "maxBatch", 100);
+        ReflectionTestUtils.setField(queue, "timeoutMs", 5_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstBatch.countDown();
+        callers.shutdownNow();
+        queue.shutdown();
+    }
+
+    @Test
+    void submitsQueuedBehindABatchAreWrittenTogether() throws Exception {
+        storageAppliesAll();
+        Future<List<Boolean>> first = submitAsync(adds("a", 1));
+        awaitFirstBatch();
+
+        List<OrderMutation> b = adds("b", 3);
+        List<OrderMutation> c = adds("c", 2);
+        Future<List<Boolean>> second = submitAsync(b);
+        Future<List<Boolean>> third = submitAsync(c);
+        awaitQueued(2);
+        releaseFirstBatch.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(true);
+        assertThat(second.get(5, TimeUnit.SECONDS)).containsExactly(true, true, true);
+        assertThat(third.get(5, TimeUnit.SECONDS)).containsExactly(true, true);
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).hasSize(5).containsAll(b).containsAll(c);
+    }
+
+    @Test
+    void aSubmitIsNeverSplitAcrossBatches() throws Exception {
+        ReflectionTestUtils.setField(queue, "maxBatch", 4);
+        storageAppliesAll();
+        Future<List<Boolean>> first = submitAsync(adds("a", 1));
+        awaitFirstBatch();
+
+        List<OrderMutation> b = adds("b", 3);
+        List<OrderMutation> c = adds("c", 2);
+        Future<List<Boolean>> second = submitAsync(b);
+        Future<List<Boolean>> third = submitAsync(c);
+        awaitQueued(2);
+        releaseFirstBatch.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+        assertThat(batches).hasSize(3);
+        assertThat(batches.subList(1, 3)).containsExactlyInAnyOrder(b, c);
+    }
+
+    @Test
+    void aFailedBatchFailsEveryFutureInIt() throws Exception {
+        when(storage.applyOrderMutations(anyList())).thenAnswer(invocation -> {
+            List<OrderMutation> mutations = invocation.getArgument(0);
+            batches.add(mutations);
+            if (batches.size() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await();
+                return results(mutations);
+            }
+            throw new IOException("Sheets down");
+        });
+        Future<List<Boolean>> first = submitAsync(adds("a", 1));
+        awaitFirstBatch();
+
+        Future<List<Boolean>> second = submitAsync(adds("b", 3));
+        Future<List<Boolean>> third = submitAsync(adds("c", 2));
+        awaitQueued(2);
+        releaseFirstBatch.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(true);
+        for (Future<List<Boolean>> failed : List.of(second, third)) {
+            assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IOException.class)
+                    .hasRootCauseMessage("Sheets down");
+        }
+        assertThat(batches).hasSize(2);
+    }
+
+    @Test
+    void theWriterSurvivesARuntimeException() throws Exception {
+        when(storage.applyOrderMutations(anyList()))
+                .thenThrow(new IllegalStateException("bug"))
+                .thenAnswer(invocation -> results(invocation.getArgument(0)));
+
+        assertThatThrownBy(() -> queue.submit(adds("a", 1)))
+                .isInstanceOf(IOException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+        Object writer = writers().get(REGION);
+
+        assertThat(queue.submit(adds("b", 2))).containsExactly(true, true);
+        assertThat(writers().get(REGION)).isSameAs(writer);
+    }
+
+    @Test
+    void theGroupVersionChangesBeforeSubmitReturns() throws Exception {
+        when(storage.applyOrderMutations(anyList())).thenAnswer(invocation -> results(invocation.getArgument(0)));
+        String before = groupVersions.groupTag(REGION, GROUP);
+
+        queue.submit(adds("a", 1));
+
+        assertThat(groupVersions.groupTag(REGION, GROUP)).isNotEqualTo(before);
+    }
+
+    @Test
+    void aWriteThatOutlivesTheTimeoutFailsTheCaller() throws Exception {
+        ReflectionTestUtils.setField(queue, "timeoutMs", 200L);
+        storageAppliesAll();
+
+        assertThatThrownBy(() -> queue.submit(adds("a", 1)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("may still be applied");
+    }
+
+    /**
+     * Storage that holds the first batch until released and applies every mutation.
+     */
+    private void storageAppliesAll() throws IOException {
+        when(storage.applyOrderMutations(anyList())).thenAnswer(invocation -> {
+            List<OrderMutation> mutations = invocation.getArgument(0);
+            batches.add(mutations);
+            if (batches.size() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await();
+            }
+            return results(mutations);
+        });
+    }
+
+    private Future<List<Boolean>> submitAsync(List<OrderMutation> mutations) {
+        return callers.submit(() -> queue.submit(mutations));
+    }
+
+    private void awaitFirstBatch() throws InterruptedException {
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void awaitQueued(int submits) throws InterruptedException {
+        BlockingQueue<?> pending = (BlockingQueue<?>) ReflectionTestUtils.getField(writers().get(REGION), "queue");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pending.size() < submits) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private Map<?, ?> writers() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(queue, "writers");
+    }
+
+    private static List<Boolean> results(List<OrderMutation> mutations) {
+        return mutations.stream().map(m -> true).toList();
+    }
+
+    private static List<OrderMutation> adds(String prefix, int count) {
+        List<OrderMutation> mutations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            mutations.add(OrderMutation.add(Order.builder().id(prefix + i).groupId(GROUP).userName("u")
+                    .itemName("滷肉飯").basePrice(60).quantity(1).totalPrice(60).paid(false).build()));
+        }
+        return mutations;
+    }
+}
@@ -20,3 +20,45 @@ axios.interceptors.request.use((config) => {
     config.headers['X-Region'] = getRegion()
     return config
 })
+
+/**
+ * Live changes of a group over Server-Sent Events (EventSource cannot send X-Region, so the
+ * region goes in the query). onReconnect runs when the stream comes back after a drop, to
+ * catch up on what was missed. Returns a function that closes the stream.
+ */
+export const subscribeGroupEvents = (groupId, handlers, onReconnect) => {
+    if (typeof EventSource === 'undefined') return () => {}
+    const source = new EventSource(getApiUrl(`/api/groups/${groupId}/events?region=${getRegion()}`))
+    let dropped = false
+    source.onerror = () => { dropped = true }
+    source.onopen = () => {
+        if (dropped) {
+            dropped = false
+            if (onReconnect) onReconnect()
+        }
+    }
+    Object.entries(handlers).forEach(([type, handler]) => {
+        source.addEventListener(type, (e) => handler(JSON.parse(e.data)))
+    })
+    return () => source.close()
+}
+
+/**
+ * Applies group events to a page's group and orders refs. Our own changes arrive as events
+ * too, so every handler is safe to run twice.
+ */
+export const groupEventHandlers = (group, orders) => ({
+    'order-added': (order) => {
+        if (!orders.value.some(o => o.id === order.id)) orders.value.push(order)
+    },
+    'order-removed': ({ id }) => {
+        orders.value = orders.value.filter(o => o.id !== id)
+    },
+    'paid-changed': ({ id, paid }) => {
+        const order = orders.value.find(o => o.id === id)
+        if (order) order.paid = paid
+    },
+    'deadline-changed': ({ deadline }) => {
+        if (group.value) group.value.deadline = deadline
+    }
+})